@@ -0,0 +1,59 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.model.Product;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic sample data shared by the benchmarks: product {@code i} is the same in every run,
+ * including its random-looking id.
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Version 4 UUID drawn from a generator seeded per product, which mixes its seed so that neighbouring
+     * products still get unrelated ids.
+     */
+    static UUID id(int i) {
+        SplittableRandom random = new SplittableRandom(SEED + i);
+        long high = random.nextLong() & ~0xF000L | 0x4000L;
+        long low = random.nextLong() & ~(0xCL << 60) | (0x8L << 60);
+        return new UUID(high, low);
+    }
+
+    static Product product(int i) {
+        Product product = new Product(id(i), "IT-Care Product " + i,
+                "Description of product number " + i + " used for benchmarking", 10.0 + i, i % 2 == 0);
+        product.setVersion((long) i % 5);
+        return product;
+    }
+
+    static ProductDTO productDTO(int i) {
+        return new ProductDTO(id(i), "IT-Care Product " + i,
+                "Description of product number " + i + " used for benchmarking", 10.0 + i, i % 2 == 0, (long) i % 5);
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    static List<ProductDTO> productDTOs(int count) {
+        List<ProductDTO> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(productDTO(i));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,79 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.springcrudengine.product_api.ProductApiApplication;
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk insert throughput into the H2 file database with random and with time-ordered primary keys.
+ * The table is seeded first and keeps growing during the run, so the random keys pay for inserts
+ * spread over an index that is larger than the pages touched by the time-ordered keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int SEED_PRODUCTS = 200_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"random", "time-ordered"})
+    private String generator;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private List<ProductDTO> batch;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ProductApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Command line arguments take precedence over application.properties
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:file:./target/jmh/bulk-insert-" + generator,
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--product.id.generator=" + generator,
+                "--logging.level.root=WARN"
+        );
+        productService = context.getBean(ProductService.class);
+        batch = BenchmarkData.productDTOs(BATCH_SIZE);
+        for (int seeded = 0; seeded < SEED_PRODUCTS; seeded += ProductService.MAX_BATCH_SIZE) {
+            productService.createProducts(BenchmarkData.productDTOs(ProductService.MAX_BATCH_SIZE));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Scored in products per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<ProductDTO> createProducts() {
+        return productService.createProducts(batch);
+    }
+}
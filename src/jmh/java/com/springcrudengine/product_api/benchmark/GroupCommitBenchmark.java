@@ -0,0 +1,69 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.springcrudengine.product_api.ProductApiApplication;
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of many concurrent single product creates, each in its own transaction or group committed.
+ * The number of transactions is reported by the {@code product.write.group.commits} metric.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ProductApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Command line arguments take precedence over application.properties
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:file:./target/jmh/group-commit-" + groupCommit,
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--product.write.group-commit.enabled=" + groupCommit,
+                "--logging.level.root=WARN"
+        );
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDTO createProduct() {
+        return productService.createProduct(BenchmarkData.productDTO(next.incrementAndGet()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.springcrudengine.product_api.id.ProductIdGenerator;
+import com.springcrudengine.product_api.id.RandomProductIdGenerator;
+import com.springcrudengine.product_api.id.TimeOrderedProductIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating a primary key when many request threads create products at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ProductIdGeneratorBenchmark {
+
+    @Param({"random", "time-ordered"})
+    private String generator;
+
+    private ProductIdGenerator idGenerator;
+
+    @Setup
+    public void setUp() {
+        idGenerator = generator.equals("random") ? new RandomProductIdGenerator() : new TimeOrderedProductIdGenerator();
+    }
+
+    @Benchmark
+    public UUID nextId() {
+        return idGenerator.nextId();
+    }
+}
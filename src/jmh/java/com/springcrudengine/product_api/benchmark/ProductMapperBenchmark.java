@@ -0,0 +1,61 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.mapper.ProductMapper;
+import com.springcrudengine.product_api.mapper.ProductMapperImpl;
+import com.springcrudengine.product_api.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the generated MapStruct mapper for a single product and for lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final ProductMapper mapper = new ProductMapperImpl();
+    private Product product;
+    private ProductDTO productDTO;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.product(1);
+        productDTO = BenchmarkData.productDTO(1);
+        products = BenchmarkData.products(size);
+    }
+
+    @Benchmark
+    public ProductDTO toDto() {
+        return mapper.toDto(product);
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return mapper.toEntity(productDTO);
+    }
+
+    @Benchmark
+    public List<ProductDTO> toDtoList() {
+        return mapper.toDto(products);
+    }
+}
@@ -0,0 +1,96 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.springcrudengine.product_api.dto.ProductDTO;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of Jackson serialization of {@link ProductDTO} lists, as returned by the list endpoints,
+ * in JSON and in the binary formats offered through content negotiation. The encoded size of each list
+ * is reported by {@link #encodedSize} as the secondary result {@code encodedSize:bytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    private static final TypeReference<List<ProductDTO>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<ProductDTO> products;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        products = BenchmarkData.productDTOs(size);
+        encoded = objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    /**
+     * Encodes the list once: JMH sums event counters over all calls and iterations, so a single call
+     * reports the size of one list.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1, batchSize = 1)
+    public byte[] encodedSize(EncodedSize encodedSize) throws JsonProcessingException {
+        byte[] bytes = objectMapper.writeValueAsBytes(products);
+        encodedSize.bytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<ProductDTO> deserializeList() throws IOException {
+        return objectMapper.readValue(encoded, PRODUCT_LIST);
+    }
+
+    /**
+     * Bytes encoded by {@link #encodedSize}.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long bytes;
+    }
+}
@@ -0,0 +1,133 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.springcrudengine.product_api.ProductApiApplication;
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import com.springcrudengine.product_api.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of {@link ProductService} operations against the H2 file database,
+ * including the mapper, the product cache and the JPA repository.
+ * {@code getMissingProduct} looks up unknown ids, which the product id filter answers without a query.
+ * {@code findProducts} scans the columnar catalog snapshot, {@code findProductsInTransaction} lists the same products
+ * with a database query, as inside a transaction; {@code findProductFields} returns only their name and price.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int SEED_PRODUCTS = 10_000;
+    private static final ProductFilter CHEAP_PRODUCTS = new ProductFilter(null, null, 510.0, null);
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private TransactionTemplate readOnlyTransaction;
+    private List<UUID> ids;
+    private List<UUID> missingIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ProductApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Command line arguments take precedence over application.properties
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:file:./target/jmh/products",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=WARN"
+        );
+        productService = context.getBean(ProductService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        ids = productService.createProducts(BenchmarkData.productDTOs(SEED_PRODUCTS)).stream()
+                .map(ProductDTO::getId)
+                .toList();
+        Random random = new Random(42);
+        missingIds = ids.stream()
+                .map(id -> new UUID(random.nextLong(), random.nextLong()))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private UUID nextId() {
+        next = (next + 1) % ids.size();
+        return ids.get(next);
+    }
+
+    @Benchmark
+    public ProductDTO createProduct() {
+        return productService.createProduct(BenchmarkData.productDTO(next++));
+    }
+
+    @Benchmark
+    public Optional<ProductDTO> getProduct() {
+        return productService.getProduct(nextId());
+    }
+
+    @Benchmark
+    public Optional<ProductDTO> getMissingProduct() {
+        next = (next + 1) % missingIds.size();
+        return productService.getProduct(missingIds.get(next));
+    }
+
+    @Benchmark
+    public ProductPageDTO getProductPage() {
+        return productService.getProductPage(null, ProductService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ProductDTO> findProducts() {
+        return productService.findProducts(CHEAP_PRODUCTS, "price");
+    }
+
+    @Benchmark
+    public List<ProductDTO> findProductsInTransaction() {
+        return readOnlyTransaction.execute(status -> productService.findProducts(CHEAP_PRODUCTS, "price"));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> findProductFields() {
+        return productService.findProductFields(CHEAP_PRODUCTS, "price", "name,price");
+    }
+
+    @Benchmark
+    public ProductDTO updateProduct() {
+        return productService.updateProduct(nextId(), BenchmarkData.productDTO(next));
+    }
+
+    @Benchmark
+    public void createAndDeleteProduct() {
+        productService.deleteProduct(productService.createProduct(BenchmarkData.productDTO(next++)).getId());
+    }
+}
@@ -0,0 +1,68 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.validation.ContainsITCareValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of Bean Validation of a {@link ProductDTO}, for valid and invalid input,
+ * and of the custom {@link ContainsITCareValidator} on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private final ContainsITCareValidator containsITCareValidator = new ContainsITCareValidator();
+    private ProductDTO validProduct;
+    private ProductDTO invalidProduct;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validProduct = BenchmarkData.productDTO(1);
+        invalidProduct = new ProductDTO(null, "ab", "Invalid product", -10.0, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProductDTO>> validateValidProduct() {
+        return validator.validate(validProduct);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProductDTO>> validateInvalidProduct() {
+        return validator.validate(invalidProduct);
+    }
+
+    @Benchmark
+    public boolean containsITCare() {
+        return containsITCareValidator.isValid(validProduct.getName(), null);
+    }
+}
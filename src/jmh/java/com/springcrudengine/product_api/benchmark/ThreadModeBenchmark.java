@@ -0,0 +1,82 @@
+package com.springcrudengine.product_api.benchmark;
+
+import com.springcrudengine.product_api.ProductApiApplication;
+import com.springcrudengine.product_api.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of the HTTP API with platform worker threads, virtual threads and the reactive stack.
+ * Many concurrent clients page through the catalog, which holds a database connection per request,
+ * so the comparison shows how each mode behaves once requests queue on database calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int SEED_PRODUCTS = 5_000;
+
+    @Param({"platform", "virtual", "reactive"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ProductApiApplication.class);
+        // Command line arguments take precedence over application.properties
+        context = application.run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                "--spring.profiles.active=" + ("reactive".equals(threads) ? "reactive" : "default"),
+                "--spring.datasource.url=jdbc:h2:file:./target/jmh/threads-" + threads,
+                "--product.reactive.r2dbc.url=r2dbc:h2:file:///./target/jmh/threads-" + threads,
+                "--product.reactive.r2dbc.pool-size=20",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=WARN"
+        );
+        context.getBean(ProductService.class).createProducts(BenchmarkData.productDTOs(SEED_PRODUCTS));
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newHttpClient();
+        pageRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/page?size=100")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int listPage() throws IOException, InterruptedException {
+        return client.send(pageRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,158 @@
+package com.springcrudengine.product_api.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springcrudengine.product_api.exceptions.ServiceUnavailableException;
+import com.springcrudengine.product_api.exceptions.TooManyRequestsException;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Decides before the controller runs whether a request is served now or rejected right away, so that requests
+ * do not queue up on Tomcat threads waiting for JDBC connections when the database slows down. In order:
+ * <ol>
+ *     <li>each client, by remote address, has a token bucket of {@code burst} requests refilled at
+ *     {@code requestsPerSecond}; an empty bucket answers {@code 429 Too Many Requests};</li>
+ *     <li>while at least {@code shedPendingConnections} threads already wait for a pooled connection,
+ *     new requests answer {@code 503 Service Unavailable};</li>
+ *     <li>reads and writes each have their own limit of requests in progress, beyond which requests answer
+ *     {@code 503}, so a burst of slow writes cannot starve reads and the other way round.</li>
+ * </ol>
+ * Rejections go through {@code GlobalExceptionHandler} with a {@code Retry-After} header and are counted by
+ * {@code product.admission.rejections}, tagged with the reason. The change and export streams stay open for minutes;
+ * they are rate limited but do not hold a concurrency permit.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String PERMITS_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permits";
+    private static final Set<String> STREAMING_PATTERNS = Set.of("/api/products/changes", "/api/products/export");
+    private static final Duration BUSY_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+
+    private final double requestsPerSecond;
+    private final double burst;
+    private final Cache<String, TokenBucket> buckets;
+    private final Semaphore reads;
+    private final Semaphore writes;
+    private final Supplier<HikariPoolMXBean> pool;
+    private final int shedPendingConnections;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+    private final Counter concurrencyLimited;
+
+    /**
+     * @param pool                   connection pool to watch, may supply {@code null} until the pool has started
+     * @param shedPendingConnections threads waiting for a connection from which requests are shed, 0 to never shed
+     */
+    public AdmissionControlInterceptor(double requestsPerSecond, int burst, int maxConcurrentReads, int maxConcurrentWrites,
+                                       Supplier<HikariPoolMXBean> pool, int shedPendingConnections, MeterRegistry meterRegistry) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        // A bucket idle long enough to be full again can be forgotten
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_CLIENTS)
+                .expireAfterAccess(Duration.ofNanos((long) Math.ceil(burst / requestsPerSecond * 1e9)).plusSeconds(1))
+                .build();
+        this.reads = new Semaphore(maxConcurrentReads);
+        this.writes = new Semaphore(maxConcurrentWrites);
+        this.pool = pool;
+        this.shedPendingConnections = shedPendingConnections;
+        this.rateLimited = rejections(meterRegistry, "rate_limit");
+        this.overloaded = rejections(meterRegistry, "overload");
+        this.concurrencyLimited = rejections(meterRegistry, "concurrency");
+        Gauge.builder("product.admission.active", reads, permits -> maxConcurrentReads - permits.availablePermits())
+                .description("Requests in progress that hold a concurrency permit")
+                .tag("kind", "read")
+                .register(meterRegistry);
+        Gauge.builder("product.admission.active", writes, permits -> maxConcurrentWrites - permits.availablePermits())
+                .description("Requests in progress that hold a concurrency permit")
+                .tag("kind", "write")
+                .register(meterRegistry);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("product.admission.rejections")
+                .description("Requests rejected before reaching the controller")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Already admitted when the request was first dispatched
+            return true;
+        }
+        long waitNanos = buckets.get(request.getRemoteAddr(), client -> new TokenBucket(burst, System.nanoTime()))
+                .take(System.nanoTime(), requestsPerSecond, burst);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            throw new TooManyRequestsException("Too many requests from this client, retry later", Duration.ofNanos(waitNanos));
+        }
+        if (STREAMING_PATTERNS.contains(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))) {
+            return true;
+        }
+        HikariPoolMXBean connections = pool.get();
+        if (shedPendingConnections > 0 && connections != null
+                && connections.getThreadsAwaitingConnection() >= shedPendingConnections) {
+            overloaded.increment();
+            throw new ServiceUnavailableException("Database overloaded, retry later", BUSY_RETRY_AFTER);
+        }
+        Semaphore permits = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                ? reads
+                : writes;
+        if (!permits.tryAcquire()) {
+            concurrencyLimited.increment();
+            throw new ServiceUnavailableException("Too many concurrent requests, retry later", BUSY_RETRY_AFTER);
+        }
+        request.setAttribute(PERMITS_ATTRIBUTE, permits);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMITS_ATTRIBUTE) instanceof Semaphore permits) {
+            request.removeAttribute(PERMITS_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    /**
+     * Tokens refilled continuously, from the time elapsed since the last request of the client.
+     */
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Takes a token, returning 0, or returns how long until the next token when the bucket is empty.
+         */
+        synchronized long take(long now, double tokensPerSecond, double capacity) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerSecond / 1e9);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * 1e9 / tokensPerSecond);
+        }
+    }
+}
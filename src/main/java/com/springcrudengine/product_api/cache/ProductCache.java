@@ -0,0 +1,95 @@
+package com.springcrudengine.product_api.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.springcrudengine.product_api.dto.ProductDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of products keyed by id.
+ * Eviction is frequency aware (W-TinyLFU), so a burst of one-off lookups does not push out the hot set.
+ * Hit, miss and eviction counters are published as {@code cache.*} metrics with the tag {@code cache=products}.
+ */
+@Component
+public class ProductCache {
+
+    public static final String NAME = "products";
+
+    private final AsyncCache<UUID, ProductDTO> cache;
+    private final Counter coalescedLoads;
+
+    public ProductCache(@Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        this.coalescedLoads = ProductReadCoalescer.coalesced(meterRegistry, "get");
+    }
+
+    /**
+     * Returns the cached product, or loads and caches it on a miss.
+     * Concurrent misses on the same id wait for a single load, counted by {@code product.reads.coalesced}
+     * with the tag {@code operation=get}. The load runs on the calling thread,
+     * outside of any map lock, so a virtual thread blocked on JDBC never pins its carrier thread.
+     * An invalidation during a load drops the loaded value instead of caching it.
+     * Missing products are not cached.
+     */
+    public Optional<ProductDTO> get(UUID id, Function<UUID, Optional<ProductDTO>> loader) {
+        CompletableFuture<ProductDTO> placeholder = new CompletableFuture<>();
+        CompletableFuture<ProductDTO> future = cache.get(id, (key, executor) -> placeholder);
+        if (future == placeholder) {
+            try {
+                placeholder.complete(loader.apply(id).orElse(null));
+            } catch (Throwable ex) {
+                // Errors too, an incomplete placeholder would block every later lookup of the id
+                placeholder.completeExceptionally(ex);
+                throw ex;
+            }
+        } else if (!future.isDone()) {
+            coalescedLoads.increment();
+        }
+        try {
+            return Optional.ofNullable(future.join());
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    /**
+     * Returns the cached product without loading it on a miss or waiting for a load in progress.
+     */
+    public Optional<ProductDTO> getIfPresent(UUID id) {
+        CompletableFuture<ProductDTO> future = cache.getIfPresent(id);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(future.getNow(null));
+    }
+
+    public void put(ProductDTO product) {
+        cache.put(product.getId(), CompletableFuture.completedFuture(product));
+    }
+
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+}
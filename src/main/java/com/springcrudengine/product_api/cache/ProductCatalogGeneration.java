@@ -0,0 +1,23 @@
+package com.springcrudengine.product_api.cache;
+
+import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of catalog changes since startup. The product services advance it after each committed create,
+ * update or delete, once the change listeners have seen the change, so anything computed after reading
+ * a generation reflects at least the changes counted by it.
+ */
+@Component
+public class ProductCatalogGeneration {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public long current() {
+        return generation.get();
+    }
+
+    public void advance() {
+        generation.incrementAndGet();
+    }
+}
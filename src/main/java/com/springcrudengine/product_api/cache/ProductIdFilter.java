@@ -0,0 +1,179 @@
+package com.springcrudengine.product_api.cache;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.repository.ProductRepository;
+import com.springcrudengine.product_api.service.ProductChangeListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over the ids of existing products, checked before looking a product up in the database.
+ * An id the filter rejects certainly does not exist, so requests for unknown ids are answered without a query.
+ * An id it accepts exists, or belongs to the small share of false positives that still reach the database.
+ * <p>
+ * The filter is built at startup and new ids are added through {@link ProductChangeListener} callbacks.
+ * A Bloom filter cannot forget ids, so deleted products keep passing it until the next periodic rebuild.
+ * Rejected lookups are counted by the {@code product.id.filter.rejections} metric.
+ */
+@Component
+public class ProductIdFilter implements ProductChangeListener, SmartInitializingSingleton {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double falsePositiveRate;
+    private final long minimumCapacity;
+    private final Counter rejections;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Null until built, every id passes
+    private volatile BloomFilter filter;
+    // Also receives the ids created while a rebuild scans the table
+    private volatile BloomFilter next;
+
+    public ProductIdFilter(ProductRepository productRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${product.id.filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${product.id.filter.minimum-capacity:100000}") long minimumCapacity,
+                           MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+        this.minimumCapacity = minimumCapacity;
+        this.rejections = Counter.builder("product.id.filter.rejections")
+                .description("Product lookups answered as not found without querying the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Returns {@code false} only if no product has the given id.
+     */
+    public boolean mightContain(UUID id) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(id)) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    /**
+     * Replaces the filter with one built from the ids currently in the database, dropping deleted ids.
+     * Sized for twice the current number of products, so it stays accurate while the catalog grows until the next rebuild.
+     */
+    @Scheduled(initialDelayString = "${product.id.filter.rebuild-interval:30m}",
+            fixedDelayString = "${product.id.filter.rebuild-interval:30m}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long capacity = Math.max(minimumCapacity, 2 * productRepository.count());
+            BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+            // Set before the scan starts: an id committed later is either read by the scan or added by productCreated
+            next = rebuilt;
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<UUID> ids = productRepository.streamAllIds()) {
+                    ids.forEach(rebuilt::put);
+                }
+            });
+            filter = rebuilt;
+        } finally {
+            next = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    public void productCreated(ProductDTO product) {
+        add(product.getId());
+    }
+
+    /**
+     * Adds the id of a product that is being created. Called again once the product is committed,
+     * as a rebuild running in between may not have seen the uncommitted row.
+     */
+    public void add(UUID id) {
+        // Read next before filter: rebuild publishes filter before clearing next, so the new filter is never missed
+        BloomFilter rebuilding = next;
+        BloomFilter current = filter;
+        if (rebuilding != null) {
+            rebuilding.put(id);
+        }
+        if (current != null && current != rebuilding) {
+            current.put(id);
+        }
+    }
+
+    /**
+     * Bit array addressed by double hashing of the id, updated without locks.
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long capacity, double falsePositiveRate) {
+            // Optimal sizes for the expected number of ids: m = -n ln p / (ln 2)^2 and k = m / n ln 2
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        void put(UUID id) {
+            long hash1 = hash(id);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((bits.get(word) & mask) == 0) {
+                    bits.accumulateAndGet(word, mask, (value, set) -> value | set);
+                }
+            }
+        }
+
+        boolean mightContain(UUID id) {
+            long hash1 = hash(id);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // The high bits of time-ordered ids are a timestamp, so both halves are mixed in
+        private static long hash(UUID id) {
+            return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+        }
+
+        // Finalizer of MurmurHash3
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
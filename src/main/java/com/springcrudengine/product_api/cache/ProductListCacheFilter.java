@@ -0,0 +1,140 @@
+package com.springcrudengine.product_api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of serialized {@code GET /api/products} responses, stored as sent and gzip-compressed.
+ * Entries are keyed by query string and {@code Accept} header and tagged with the {@link ProductCatalogGeneration}
+ * read before the response was computed. A request at the same generation is answered from the cached bytes
+ * without reaching the controller, so neither the database, the mapper nor Jackson are involved; any catalog
+ * change advances the generation and the next request computes the response again.
+ * <p>
+ * Hit and miss counters are published as {@code cache.*} metrics with the tag {@code cache=product-lists}.
+ */
+public class ProductListCacheFilter extends OncePerRequestFilter {
+
+    public static final String NAME = "product-lists";
+
+    private static final String URI_PATTERN = "/api/products";
+    private static final String GZIP = "gzip";
+
+    private final ProductCatalogGeneration catalogGeneration;
+    private final Cache<String, Entry> cache;
+
+    public ProductListCacheFilter(ProductCatalogGeneration catalogGeneration, long maximumWeight, MeterRegistry meterRegistry) {
+        this.catalogGeneration = catalogGeneration;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String key, Entry entry) -> key.length() + entry.body().length
+                        + (entry.gzipBody() == null ? 0 : entry.gzipBody().length))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getQueryString() + '\n' + request.getHeader(HttpHeaders.ACCEPT);
+        long generation = catalogGeneration.current();
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.generation() == generation) {
+            // Tag the request metrics as if the controller had handled it
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI_PATTERN);
+            ServerHttpObservationFilter.findObservationContext(request)
+                    .ifPresent(context -> context.setPathPattern(URI_PATTERN));
+            write(cached, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentType() == null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        byte[] gzipBody = gzip(body);
+        Entry entry = new Entry(generation, wrapper.getContentType(), body, gzipBody.length < body.length ? gzipBody : null);
+        cache.put(key, entry);
+        write(entry, request, response);
+    }
+
+    private static void write(Entry entry, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = entry.body();
+        if (entry.gzipBody() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            body = entry.gzipBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(entry.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Whether the {@code Accept-Encoding} header lists gzip, or any encoding, without a zero weight.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String weight) {
+        try {
+            return Double.parseDouble(weight) == 0;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    private record Entry(long generation, String contentType, byte[] body, byte[] gzipBody) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.springcrudengine.product_api.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical reads: while a read is in progress, callers asking for the same key wait for
+ * it and share its result, or its exception, instead of running their own. Nothing is kept once the read completes,
+ * so this only merges reads that overlap in time.
+ * <p>
+ * Keys of catalog reads include the {@link ProductCatalogGeneration} read before the call. A read that starts after
+ * a change has returned sees a newer generation and never joins a read started before the change.
+ * Merged calls are counted by {@code product.reads.coalesced}, tagged with the operation.
+ */
+@Component
+public class ProductReadCoalescer {
+
+    public static final String METRIC = "product.reads.coalesced";
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ProductReadCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the result of the read in progress for the key, or runs the read on the calling thread.
+     *
+     * @param key must implement {@code equals} and {@code hashCode} by value and identify the operation
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V coalesce(String operation, Object key, Supplier<V> read) {
+        CompletableFuture<Object> placeholder = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, placeholder);
+        if (running == null) {
+            try {
+                V value = read.get();
+                placeholder.complete(value);
+                return value;
+            } catch (Throwable ex) {
+                // Errors too, callers waiting for this read would otherwise never return
+                placeholder.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inFlight.remove(key, placeholder);
+            }
+        }
+
+        coalesced(meterRegistry, operation).increment();
+        try {
+            return (V) running.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    static Counter coalesced(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder(METRIC)
+                .description("Reads that shared the result of an identical read in progress")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
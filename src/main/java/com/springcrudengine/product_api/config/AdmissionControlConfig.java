@@ -0,0 +1,40 @@
+package com.springcrudengine.product_api.config;
+
+import com.springcrudengine.product_api.admission.AdmissionControlInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Admission control in front of the product API, see {@link AdmissionControlInterceptor}.
+ * Off by default, enabled with {@code product.admission.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor interceptor;
+
+    public AdmissionControlConfig(@Value("${product.admission.rate-limit.requests-per-second:100}") double requestsPerSecond,
+                                  @Value("${product.admission.rate-limit.burst:200}") int burst,
+                                  @Value("${product.admission.max-concurrent-reads:64}") int maxConcurrentReads,
+                                  @Value("${product.admission.max-concurrent-writes:16}") int maxConcurrentWrites,
+                                  @Value("${product.admission.shed-pending-connections:20}") int shedPendingConnections,
+                                  DataSource dataSource,
+                                  MeterRegistry meterRegistry) throws SQLException {
+        HikariDataSource pool = dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        this.interceptor = new AdmissionControlInterceptor(requestsPerSecond, burst, maxConcurrentReads, maxConcurrentWrites,
+                () -> pool == null ? null : pool.getHikariPoolMXBean(), shedPendingConnections, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+    }
+}
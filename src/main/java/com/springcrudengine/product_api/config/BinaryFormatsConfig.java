@@ -0,0 +1,32 @@
+package com.springcrudengine.product_api.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the same DTOs as JSON: CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}), chosen by the {@code Accept} header for responses and by the
+ * {@code Content-Type} header for request bodies. Both keep JSON's property names, so no schema is shared
+ * with clients, but numbers are written in binary and strings without escaping.
+ * <p>
+ * The converters replace Spring MVC's defaults for these formats, which come after JSON, so JSON stays the answer
+ * to {@code Accept: *}{@code /*}. They are built from Spring Boot's Jackson settings, like the JSON converter.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,86 @@
+package com.springcrudengine.product_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Infrastructure of the {@code reactive} profile: Netty instead of Tomcat, and an R2DBC connection pool
+ * to the same H2 database as the JDBC data source.
+ * <p>
+ * The JDBC data source is declared here as well, because Spring Boot skips it as soon as an R2DBC
+ * connection factory exists. JPA still creates the schema and loads the search index at startup;
+ * requests never use it.
+ * <p>
+ * Spring Boot's R2DBC auto-configuration is excluded in {@code application.properties}, because its reactive
+ * transaction manager would replace the JPA one. The R2DBC transaction manager is therefore not a bean;
+ * it is only reachable through the {@link TransactionalOperator}.
+ * <p>
+ * H2's R2DBC driver runs every statement synchronously on the thread that subscribes to it. By default the pool
+ * hands a released connection to the next waiting request on the releasing thread, so under load all database work
+ * piles up on a single event loop. Connections are therefore handed out on a scheduler with one worker per connection.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler databaseScheduler(@Value("${product.reactive.r2dbc.pool-size:10}") int poolSize) {
+        return Schedulers.newBoundedElastic(poolSize, Integer.MAX_VALUE, "r2dbc", 60, true);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(@Value("${product.reactive.r2dbc.url}") String url,
+                                            @Value("${spring.datasource.username}") String username,
+                                            @Value("${spring.datasource.password}") String password,
+                                            @Value("${product.reactive.r2dbc.pool-size:10}") int poolSize,
+                                            Scheduler databaseScheduler) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(poolSize)
+                .customizer(pool -> pool.acquisitionScheduler(databaseScheduler))
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,32 @@
+package com.springcrudengine.product_api.config;
+
+import com.springcrudengine.product_api.cache.ProductCatalogGeneration;
+import com.springcrudengine.product_api.cache.ProductListCacheFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Serialized response cache of the product list, see {@link ProductListCacheFilter}.
+ * Enabled unless {@code product.list-cache.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.list-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<ProductListCacheFilter> productListCacheFilter(
+            ProductCatalogGeneration catalogGeneration,
+            @Value("${product.list-cache.maximum-size:64MB}") DataSize maximumSize,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ProductListCacheFilter> registration = new FilterRegistrationBean<>(
+                new ProductListCacheFilter(catalogGeneration, maximumSize.toBytes(), meterRegistry));
+        // Only the list itself, not /api/products/{id} or the streamed endpoints
+        registration.addUrlPatterns("/api/products");
+        return registration;
+    }
+}
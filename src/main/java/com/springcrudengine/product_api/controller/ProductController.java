@@ -1,66 +1,237 @@
 package com.springcrudengine.product_api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.springcrudengine.product_api.dto.ProductChangeDTO;
 import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import com.springcrudengine.product_api.dto.ProductPatchDTO;
+import com.springcrudengine.product_api.dto.ProductStatsDTO;
 import com.springcrudengine.product_api.exceptions.ApiSuccessResponse;
 import com.springcrudengine.product_api.exceptions.ProductNotFoundException;
+import com.springcrudengine.product_api.feed.ProductChangeFeed;
+import com.springcrudengine.product_api.feed.ProductChangeFollowers;
 import com.springcrudengine.product_api.mapper.ProductMapper;
 import com.springcrudengine.product_api.service.ProductService;
+import com.springcrudengine.product_api.stats.ProductCatalogStats;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import jakarta.validation.Valid;
+import static com.springcrudengine.product_api.controller.ProductETags.eTag;
+import static com.springcrudengine.product_api.controller.ProductETags.expectedVersion;
+import static com.springcrudengine.product_api.controller.ProductETags.matchesAny;
+import static com.springcrudengine.product_api.controller.ProductETags.MERGE_PATCH_JSON_VALUE;
 
 /**
  * REST controller for managing products.
  * Provides endpoints for creating, retrieving, updating, and deleting products.
+ * Replaced by {@link ReactiveProductController} when the {@code reactive} profile is active.
  */
 @RestController
+@Profile("!reactive")
 @Tag(name = "Product", description = "Operations related to products")
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int EXPORT_FLUSH_INTERVAL = 256;
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ProductChangeFeed changeFeed;
+    private final ProductCatalogStats catalogStats;
+    private final ProductChangeFollowers changeFollowers;
 
-    public ProductController(ProductService productService, ProductMapper productMapper) {
+    public ProductController(ProductService productService, ProductMapper productMapper, ObjectMapper objectMapper,
+                             ProductChangeFeed changeFeed, ProductCatalogStats catalogStats,
+                             ProductChangeFollowers changeFollowers) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
+        this.catalogStats = catalogStats;
+        this.changeFollowers = changeFollowers;
     }
 
     @PostMapping
     @Operation(summary = "Add new products", description = "Create new products inside the database")
     public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductDTO productDTO) {
         ProductDTO createdProductDTO = productService.createProduct(productDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProductDTO);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(eTag(createdProductDTO.getVersion()))
+                .body(createdProductDTO);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Add products in bulk",
+            description = "Validate and create many products at once. The request fails without writing anything if any product is invalid or cannot be stored")
+    public ResponseEntity<List<ProductDTO>> createProducts(@RequestBody List<ProductDTO> productDTOs) {
+        List<ProductDTO> createdProductDTOs = productService.createProducts(productDTOs);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdProductDTOs);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get product info", description = "Display product information from id")
-    public ResponseEntity<ProductDTO> getProduct(@PathVariable UUID id) {
+    @Operation(summary = "Get product info",
+            description = "Display product information from id. Answers 304 when If-None-Match holds the current ETag. "
+                    + "With fields, e.g. fields=name,price, only those properties are read and returned, plus id and version")
+    public ResponseEntity<?> getProduct(@PathVariable UUID id,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                        @RequestParam(required = false) String fields) {
+        if (ifNoneMatch != null) {
+            // Compare versions first so an unchanged product is neither loaded nor serialized
+            Optional<Long> version = productService.getProductVersion(id);
+            if (version.isPresent() && matchesAny(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag(version.get())).build();
+            }
+        }
+        if (fields != null) {
+            return productService.getProductFields(id, fields)
+                    .map(product -> ResponseEntity.ok().eTag(eTag((Long) product.get("version"))).body(product))
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found"));
+        }
         return productService.getProduct(id) // Assuming this returns Optional<ProductDTO>
-                .map(ResponseEntity::ok) // Wrap it in ResponseEntity directly
+                .map(product -> ResponseEntity.ok().eTag(eTag(product.getVersion())).body(product))
                 .orElseThrow(() -> new ProductNotFoundException("Product not found"));
     }
 
     @GetMapping
-    @Operation(summary = "List products", description = "Display all the available products")
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> productDTOs = productService.getAllProducts();
+    @Operation(summary = "List products",
+            description = "Display all the available products, optionally filtered by availability, price range and name prefix and sorted by name or price. "
+                    + "With fields, e.g. fields=name,price, only those properties are read and returned, plus id and version")
+    public ResponseEntity<List<?>> getAllProducts(@RequestParam(required = false) Boolean available,
+                                                  @RequestParam(required = false) Double minPrice,
+                                                  @RequestParam(required = false) Double maxPrice,
+                                                  @RequestParam(required = false) String namePrefix,
+                                                  @RequestParam(required = false) String sort,
+                                                  @RequestParam(required = false) String fields) {
+        ProductFilter filter = new ProductFilter(available, minPrice, maxPrice, namePrefix);
+        if (fields != null) {
+            return ResponseEntity.ok(productService.findProductFields(filter, sort, fields));
+        }
+        List<ProductDTO> productDTOs = filter.isEmpty() && sort == null
+                ? productService.getAllProducts()
+                : productService.findProducts(filter, sort);
         return ResponseEntity.ok(productDTOs);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "List products page by page",
+            description = "Display products ordered by id, one bounded page at a time. Pass the returned 'next' cursor to fetch the following page")
+    public ResponseEntity<ProductPageDTO> getProductPage(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productService.getProductPage(cursor, size));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products",
+            description = "Find the products whose name or description contains every word of the query, best match first. Words also match as prefixes")
+    public ResponseEntity<List<ProductDTO>> searchProducts(@RequestParam String q,
+                                                           @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.searchProducts(q, limit));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Catalog statistics",
+            description = "Display the number of products, the number in stock and the min, average and max price, kept up to date without querying the database")
+    public ResponseEntity<ProductStatsDTO> getStats() {
+        return ResponseEntity.ok(catalogStats.stats());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export products",
+            description = "Stream the whole catalog as newline delimited JSON, one product per line")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        ObjectWriter writer = objectMapper.writerFor(ProductDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                productService.exportProducts(product -> {
+                    try {
+                        writer.writeValue(generator, product);
+                        generator.writeRaw('\n');
+                        // Push the first row out right away, then flush in chunks
+                        if (written[0]++ % EXPORT_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Follow product changes",
+            description = "Stream created, updated and deleted products as server-sent events, starting after Last-Event-ID or with the next change. "
+                    + "A 'reset' event means changes were missed and the catalog has to be reloaded. "
+                    + "Answers 503 while product.feed.max-clients clients are already following")
+    public ResponseEntity<SseEmitter> streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        long after = lastEventId != null ? parseEventId(lastEventId) : changeFeed.latestSequence();
+        // Each client waits on its own platform thread, so a slow one only delays itself
+        Future<?> follower;
+        try {
+            follower = changeFollowers.start(after, new SseFollower(emitter));
+        } catch (RejectedExecutionException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        // Also called after a timeout or an error
+        emitter.onCompletion(() -> follower.cancel(true));
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * An event id that is not a number cannot come from this feed, -1 makes the client reload with a reset event.
+     */
+    private static long parseEventId(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete product", description = "Remove product based on its id")
     @ApiResponse(
@@ -78,9 +249,55 @@ public class ProductController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update product", description = "Change product information based on its id")
-    public ResponseEntity<ProductDTO> updateProduct(@PathVariable UUID id, @Valid @RequestBody ProductDTO productDTO) {
-        ProductDTO updatedProductDTO = productService.updateProduct(id, productDTO);
-        return ResponseEntity.ok(updatedProductDTO);
+    @Operation(summary = "Update product",
+            description = "Change product information based on its id. With If-Match the update only succeeds if the product still has that ETag")
+    public ResponseEntity<ProductDTO> updateProduct(@PathVariable UUID id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @Valid @RequestBody ProductDTO productDTO) {
+        ProductDTO updatedProductDTO = productService.updateProduct(id, productDTO, expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(eTag(updatedProductDTO.getVersion()))
+                .body(updatedProductDTO);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Patch product",
+            description = "Change only the properties present in the body (JSON Merge Patch), null clears a property. "
+                    + "With If-Match the patch only succeeds if the product still has that ETag")
+    public ResponseEntity<ProductDTO> patchProduct(@PathVariable UUID id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody ProductPatchDTO patch) {
+        ProductDTO patchedProductDTO = productService.patchProduct(id, patch, expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(eTag(patchedProductDTO.getVersion()))
+                .body(patchedProductDTO);
+    }
+
+    private record SseFollower(SseEmitter emitter) implements ProductChangeFeed.Follower {
+
+        @Override
+        public void deliver(List<ProductChangeDTO> events) throws IOException {
+            // One send, so a burst of events is written and flushed once
+            Set<ResponseBodyEmitter.DataWithMediaType> data = new LinkedHashSet<>();
+            for (ProductChangeDTO event : events) {
+                data.addAll(SseEmitter.event()
+                        .id(Long.toString(event.getSequence()))
+                        .name(event.getType().name().toLowerCase(Locale.ROOT))
+                        .data(event, MediaType.APPLICATION_JSON)
+                        .build());
+            }
+            emitter.send(data);
+        }
+
+        @Override
+        public void missed() throws IOException {
+            emitter.send(SseEmitter.event().name("reset").data("Changes were missed, reload the products"));
+        }
+
+        @Override
+        public void idle() throws IOException {
+            // Comment line, fails once the client has disconnected
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+        }
     }
 }
@@ -0,0 +1,55 @@
+package com.springcrudengine.product_api.controller;
+
+import com.springcrudengine.product_api.exceptions.PreconditionFailedException;
+import org.springframework.http.ETag;
+import java.util.List;
+
+/**
+ * Conversions between product versions and the ETag, If-None-Match and If-Match headers,
+ * shared by the servlet and the reactive controllers.
+ */
+final class ProductETags {
+
+    /**
+     * Content type of JSON Merge Patch bodies, accepted by PATCH next to plain JSON.
+     */
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private ProductETags() {
+    }
+
+    static String eTag(Long version) {
+        return version == null ? null : ETag.quoteETagIfNecessary(version.toString());
+    }
+
+    /**
+     * Weak comparison of an If-None-Match header against the current version.
+     */
+    static boolean matchesAny(String ifNoneMatch, long version) {
+        ETag current = ETag.create(eTag(version));
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+    }
+
+    /**
+     * Extracts the version a conditional update expects from its If-Match header.
+     * Only a single strong ETag can match a version; "*" matches any existing product.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> eTags = ETag.parse(ifMatch);
+        if (eTags.size() == 1 && eTags.get(0).isWildcard()) {
+            return null;
+        }
+        if (eTags.size() != 1 || eTags.get(0).weak()) {
+            throw new PreconditionFailedException("If-Match must contain a single strong ETag");
+        }
+        try {
+            return Long.parseLong(eTags.get(0).tag());
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("Product has been modified by another request");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.springcrudengine.product_api.controller;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import com.springcrudengine.product_api.dto.ProductPatchDTO;
+import com.springcrudengine.product_api.dto.ProductStatsDTO;
+import com.springcrudengine.product_api.exceptions.ApiSuccessResponse;
+import com.springcrudengine.product_api.exceptions.ProductNotFoundException;
+import com.springcrudengine.product_api.service.ReactiveProductService;
+import com.springcrudengine.product_api.stats.ProductCatalogStats;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.List;
+import java.util.UUID;
+import jakarta.validation.Valid;
+import static com.springcrudengine.product_api.controller.ProductETags.eTag;
+import static com.springcrudengine.product_api.controller.ProductETags.expectedVersion;
+import static com.springcrudengine.product_api.controller.ProductETags.matchesAny;
+import static com.springcrudengine.product_api.controller.ProductETags.MERGE_PATCH_JSON_VALUE;
+
+/**
+ * WebFlux version of {@link ProductController}, active with the {@code reactive} profile.
+ * Same paths, parameters, headers, status codes and error bodies, served by a few event loop threads.
+ * Lists are written while the rows are read; with {@code Accept: application/x-ndjson} one product
+ * is sent per line and the database is read no faster than the client consumes the response.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/products")
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+    private final ProductCatalogStats catalogStats;
+
+    public ReactiveProductController(ReactiveProductService productService, ProductCatalogStats catalogStats) {
+        this.productService = productService;
+        this.catalogStats = catalogStats;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ProductDTO>> createProduct(@Valid @RequestBody ProductDTO productDTO) {
+        return productService.createProduct(productDTO)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED)
+                        .eTag(eTag(created.getVersion()))
+                        .body(created));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<ProductDTO>>> createProducts(@RequestBody List<ProductDTO> productDTOs) {
+        return productService.createProducts(productDTOs)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> getProduct(@PathVariable UUID id,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<ProductDTO>> product = productService.getProduct(id)
+                .map(found -> ResponseEntity.ok().eTag(eTag(found.getVersion())).body(found))
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found")));
+        if (ifNoneMatch == null) {
+            return product;
+        }
+        // Compare versions first so an unchanged product is neither loaded nor serialized
+        return productService.getProductVersion(id)
+                .filter(version -> matchesAny(ifNoneMatch, version))
+                .map(version -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag(version)).<ProductDTO>build())
+                .switchIfEmpty(product);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductDTO> getAllProducts(@RequestParam(required = false) Boolean available,
+                                           @RequestParam(required = false) Double minPrice,
+                                           @RequestParam(required = false) Double maxPrice,
+                                           @RequestParam(required = false) String namePrefix,
+                                           @RequestParam(required = false) String sort) {
+        return productService.findProducts(new ProductFilter(available, minPrice, maxPrice, namePrefix), sort);
+    }
+
+    @GetMapping("/page")
+    public Mono<ProductPageDTO> getProductPage(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size) {
+        return productService.getProductPage(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public Flux<ProductDTO> searchProducts(@RequestParam String q,
+                                           @RequestParam(required = false) Integer limit) {
+        return productService.searchProducts(q, limit);
+    }
+
+    @GetMapping("/stats")
+    public Mono<ProductStatsDTO> getStats() {
+        return Mono.fromSupplier(catalogStats::stats);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDTO> exportProducts() {
+        return productService.findProducts(new ProductFilter(), null);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<ApiSuccessResponse>> deleteProduct(@PathVariable UUID id) {
+        return productService.deleteProduct(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok(new ApiSuccessResponse(
+                        HttpStatus.OK.value(),
+                        "Product deleted successfully"
+                ))));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> updateProduct(@PathVariable UUID id,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @Valid @RequestBody ProductDTO productDTO) {
+        return productService.updateProduct(id, productDTO, expectedVersion(ifMatch))
+                .map(updated -> ResponseEntity.ok()
+                        .eTag(eTag(updated.getVersion()))
+                        .body(updated));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<ProductDTO>> patchProduct(@PathVariable UUID id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody ProductPatchDTO patch) {
+        return productService.patchProduct(id, patch, expectedVersion(ifMatch))
+                .map(patched -> ResponseEntity.ok()
+                        .eTag(eTag(patched.getVersion()))
+                        .body(patched));
+    }
+}
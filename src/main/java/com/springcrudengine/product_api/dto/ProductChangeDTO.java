@@ -0,0 +1,32 @@
+package com.springcrudengine.product_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.UUID;
+
+/**
+ * DTO used for exposing one event of the product change feed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeDTO {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    @Schema(description = "Position of the event in the feed, increasing by one per event. Also sent as the SSE event id")
+    private long sequence;
+
+    @Schema(description = "Kind of change")
+    private Type type;
+
+    @Schema(description = "Id of the changed product")
+    private UUID id;
+
+    @Schema(description = "Product after the change, absent for deletions")
+    private ProductDTO product;
+}
@@ -1,5 +1,6 @@
 package com.springcrudengine.product_api.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -39,4 +40,13 @@ public class ProductDTO {
     @Schema(description = "Availability of the product", example = "true")
     @NotNull(message = "Availability status must be provided")
     private Boolean available;
+
+    @Schema(description = "Version of the product, also sent as the ETag header", example = "0",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    public ProductDTO(UUID id, String name, String description, Double price, Boolean available) {
+        this(id, name, description, price, available, null);
+    }
 }
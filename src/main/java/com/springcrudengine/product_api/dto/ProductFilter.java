@@ -0,0 +1,23 @@
+package com.springcrudengine.product_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional criteria of the product list query, all of them combined with AND.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilter {
+
+    private Boolean available;
+    private Double minPrice;
+    private Double maxPrice;
+    private String namePrefix;
+
+    public boolean isEmpty() {
+        return available == null && minPrice == null && maxPrice == null && (namePrefix == null || namePrefix.isEmpty());
+    }
+}
@@ -0,0 +1,22 @@
+package com.springcrudengine.product_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * DTO used for exposing one page of the cursor based product listing.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPageDTO {
+
+    @Schema(description = "Products on this page, ordered by id")
+    private List<ProductDTO> items;
+
+    @Schema(description = "Opaque cursor of the next page, absent on the last page")
+    private String next;
+}
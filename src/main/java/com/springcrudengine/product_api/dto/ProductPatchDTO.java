@@ -0,0 +1,38 @@
+package com.springcrudengine.product_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO used for partial product updates with JSON Merge Patch semantics (RFC 7396):
+ * properties absent from the body keep their value, properties set to {@code null} are cleared.
+ * Values are kept as parsed by Jackson and checked against the {@link ProductDTO} constraints by the service.
+ */
+@Schema(description = "Product properties to change, absent properties are left untouched",
+        example = "{\"price\": 250, \"available\": false}")
+public class ProductPatchDTO {
+
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+    public ProductPatchDTO() {
+    }
+
+    public ProductPatchDTO(Map<String, ?> changes) {
+        this.changes.putAll(changes);
+    }
+
+    @JsonAnySetter
+    public void set(String property, Object value) {
+        changes.put(property, value);
+    }
+
+    /**
+     * Changed properties in body order, a {@code null} value clears the property.
+     */
+    public Map<String, Object> getChanges() {
+        return Collections.unmodifiableMap(changes);
+    }
+}
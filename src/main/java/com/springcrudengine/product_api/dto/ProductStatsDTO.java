@@ -0,0 +1,30 @@
+package com.springcrudengine.product_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO used for exposing aggregate figures about the whole catalog.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductStatsDTO {
+
+    @Schema(description = "Number of products", example = "1200")
+    private long total;
+
+    @Schema(description = "Number of available products", example = "950")
+    private long inStock;
+
+    @Schema(description = "Lowest price, absent when there are no products", example = "4.99")
+    private Double minPrice;
+
+    @Schema(description = "Average price, absent when there are no products", example = "187.5")
+    private Double averagePrice;
+
+    @Schema(description = "Highest price, absent when there are no products", example = "2499")
+    private Double maxPrice;
+}
@@ -0,0 +1,8 @@
+package com.springcrudengine.product_api.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
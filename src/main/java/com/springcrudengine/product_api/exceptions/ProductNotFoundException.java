@@ -1,8 +1,12 @@
 package com.springcrudengine.product_api.exceptions;
 
 
+    /**
+     * Thrown for unknown product ids. Answered with 404 by {@link GlobalExceptionHandler}, so no stack trace is
+     * captured: lookups of missing ids are frequent and the trace would never be read.
+     */
     public class ProductNotFoundException extends RuntimeException {
         public ProductNotFoundException(String message) {
-            super(message);
+            super(message, null, false, false);
         }
     }
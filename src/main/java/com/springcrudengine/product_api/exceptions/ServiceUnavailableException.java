@@ -0,0 +1,24 @@
+package com.springcrudengine.product_api.exceptions;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message) {
+        this(message, null);
+    }
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * When the client may retry, or {@code null} when unknown.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,138 @@
+package com.springcrudengine.product_api.feed;
+
+import com.springcrudengine.product_api.dto.ProductChangeDTO;
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.service.ProductChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed of product changes numbered 1, 2, 3... in the order {@code ProductService} reported them.
+ * The latest {@code product.feed.capacity} events are kept in a ring buffer, so a client that lost its
+ * connection resumes after the last event it received instead of reloading the catalog.
+ * <p>
+ * Writers only store the event and wake up the followers; each follower copies new events under the lock and
+ * delivers them on its own thread, so a slow consumer falls behind instead of slowing down writes.
+ * Events are numbered when reported, after the commit: two concurrent updates of one product may be numbered
+ * in the opposite order of their commits, the product version tells which one is newer.
+ * Sequence numbers start again from 1 when the application restarts.
+ */
+@Component
+public class ProductChangeFeed implements ProductChangeListener {
+
+    private static final int MAX_EVENTS_PER_DELIVERY = 256;
+
+    private final ProductChangeDTO[] events;
+    private final long heartbeatNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long latestSequence;
+
+    /**
+     * Receives the events of {@link #follow}, always on the following thread.
+     */
+    public interface Follower {
+
+        void deliver(List<ProductChangeDTO> events) throws IOException;
+
+        /**
+         * Events after the requested position are no longer buffered; the follower has to reload the catalog.
+         * Delivery continues with the oldest buffered event.
+         */
+        void missed() throws IOException;
+
+        /**
+         * Nothing has changed for a heartbeat interval, e.g. to find out whether the client is still connected.
+         */
+        void idle() throws IOException;
+    }
+
+    public ProductChangeFeed(@Value("${product.feed.capacity:10000}") int capacity,
+                             @Value("${product.feed.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.events = new ProductChangeDTO[capacity];
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+    }
+
+    public long latestSequence() {
+        lock.lock();
+        try {
+            return latestSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delivers every event after the given sequence number, then each new event as it arrives, until the follower
+     * throws or the thread is interrupted. Blocks the calling thread, which should be dedicated to this follower.
+     */
+    public void follow(long after, Follower follower) throws IOException, InterruptedException {
+        long position = after;
+        while (true) {
+            List<ProductChangeDTO> batch = new ArrayList<>();
+            boolean missed = false;
+            lock.lockInterruptibly();
+            try {
+                long nanos = heartbeatNanos;
+                while (position == latestSequence && nanos > 0) {
+                    nanos = appended.awaitNanos(nanos);
+                }
+                // Also covers a position from before a restart, which may be ahead of the feed
+                long oldest = Math.max(0, latestSequence - events.length);
+                if (position < oldest || position > latestSequence) {
+                    missed = true;
+                    position = oldest;
+                } else {
+                    long last = Math.min(latestSequence, position + MAX_EVENTS_PER_DELIVERY);
+                    for (long sequence = position + 1; sequence <= last; sequence++) {
+                        batch.add(events[(int) (sequence % events.length)]);
+                    }
+                    position = last;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (missed) {
+                follower.missed();
+            } else if (batch.isEmpty()) {
+                follower.idle();
+            } else {
+                follower.deliver(batch);
+            }
+        }
+    }
+
+    @Override
+    public void productCreated(ProductDTO product) {
+        append(ProductChangeDTO.Type.CREATED, product.getId(), product);
+    }
+
+    @Override
+    public void productUpdated(ProductDTO product) {
+        append(ProductChangeDTO.Type.UPDATED, product.getId(), product);
+    }
+
+    @Override
+    public void productDeleted(UUID id) {
+        append(ProductChangeDTO.Type.DELETED, id, null);
+    }
+
+    private void append(ProductChangeDTO.Type type, UUID id, ProductDTO product) {
+        lock.lock();
+        try {
+            long sequence = ++latestSequence;
+            events[(int) (sequence % events.length)] = new ProductChangeDTO(sequence, type, id, product);
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.springcrudengine.product_api.feed;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the followers of {@link ProductChangeFeed}, each on its own platform thread, at most
+ * {@code product.feed.max-clients} at a time.
+ * <p>
+ * Followers write to the client socket and may block there for as long as the client is slow. On a virtual thread
+ * such a write inside a {@code synchronized} block, as in {@code ResponseBodyEmitter.send}, would pin its carrier
+ * thread, so a few stalled clients could starve every virtual thread of the application.
+ */
+@Component
+public class ProductChangeFollowers implements DisposableBean {
+
+    private final ProductChangeFeed changeFeed;
+    private final ThreadPoolExecutor executor;
+
+    public ProductChangeFollowers(ProductChangeFeed changeFeed,
+                                  @Value("${product.feed.max-clients:256}") int maxClients) {
+        this.changeFeed = changeFeed;
+        // No queue: a follower beyond the limit is rejected instead of waiting for another one to leave
+        this.executor = new ThreadPoolExecutor(maxClients, maxClients, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                Thread.ofPlatform().name("product-changes-", 0).daemon().factory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts following the feed after the given sequence number, see {@link ProductChangeFeed#follow}.
+     * Cancelling the returned future with interruption stops the follower.
+     *
+     * @throws RejectedExecutionException if {@code product.feed.max-clients} followers are already running
+     */
+    public Future<?> start(long after, ProductChangeFeed.Follower follower) {
+        return executor.submit(() -> {
+            try {
+                changeFeed.follow(after, follower);
+            } catch (IOException | IllegalStateException | InterruptedException ex) {
+                // Client gone or follower stopped
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
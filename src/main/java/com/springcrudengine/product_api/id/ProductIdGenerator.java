@@ -0,0 +1,12 @@
+package com.springcrudengine.product_api.id;
+
+import java.util.UUID;
+
+/**
+ * Source of primary keys for new products.
+ * The implementation is chosen with {@code product.id.generator}: {@code time-ordered} (default) or {@code random}.
+ */
+public interface ProductIdGenerator {
+
+    UUID nextId();
+}
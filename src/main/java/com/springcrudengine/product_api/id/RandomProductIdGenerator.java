@@ -0,0 +1,18 @@
+package com.springcrudengine.product_api.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs, as produced by {@link UUID#randomUUID()}.
+ */
+@Component
+@ConditionalOnProperty(name = "product.id.generator", havingValue = "random")
+public class RandomProductIdGenerator implements ProductIdGenerator {
+
+    @Override
+    public UUID nextId() {
+        return UUID.randomUUID();
+    }
+}
@@ -3,13 +3,17 @@ package com.springcrudengine.product_api.mapper;
 import com.springcrudengine.product_api.dto.ProductDTO;
 import com.springcrudengine.product_api.model.Product;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import java.util.List;
 
 
 @Mapper(componentModel = "spring")
 public interface ProductMapper {
 
+    // Rows written before versioning was introduced have no version yet
+    @Mapping(target = "version", defaultValue = "0L")
     ProductDTO toDto(Product product);
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductDTO dto);
 
     List<ProductDTO> toDto(List<Product> products);
@@ -2,16 +2,31 @@ package com.springcrudengine.product_api.model;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_price", columnList = "price"),
+        @Index(name = "idx_product_available_price", columnList = "available, price"),
+        @Index(name = "idx_product_name", columnList = "name")
+})
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
-public class Product {
+public class Product implements Persistable<UUID> {
 
     @Id
     private UUID id;
@@ -20,4 +35,37 @@ public class Product {
     private String description;
     private Double price;
     private Boolean available;
+
+    @Version
+    private Long version;
+
+    /**
+     * Ids are assigned by the application, so Spring Data cannot tell new products from existing ones by id.
+     * Without this flag every save of a new product would run a SELECT before the INSERT.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity = true;
+
+    public Product(UUID id, String name, String description, Double price, Boolean available) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.available = available;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void markNotNew() {
+        this.newEntity = false;
+    }
 }
@@ -1,10 +1,76 @@
 package com.springcrudengine.product_api.repository;
 
 import com.springcrudengine.product_api.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * First page of the keyset listing, ordered by primary key.
+     */
+    List<Product> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Next page of the keyset listing: a primary-key range scan starting right after {@code id}.
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Streams every product through a JDBC cursor instead of materializing the whole table.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query("select p from Product p")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAll();
+
+    /**
+     * Streams the id of every product without loading the entities.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query("select p.id from Product p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    Stream<UUID> streamAllIds();
+
+    /**
+     * Reads only the version of a product, e.g. to answer conditional requests without loading the row.
+     * Rows written before versioning was introduced report version 0.
+     */
+    @Query("select coalesce(p.version, 0) from Product p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Number of products and of available products per distinct price, the basis of the catalog statistics.
+     */
+    @Query("select p.price as price, count(p) as products, "
+            + "sum(case when p.available = true then 1 else 0 end) as available "
+            + "from Product p group by p.price")
+    List<PriceCount> countByPrice();
+
+    interface PriceCount {
+
+        Double getPrice();
+
+        Long getProducts();
+
+        Long getAvailable();
+    }
 }
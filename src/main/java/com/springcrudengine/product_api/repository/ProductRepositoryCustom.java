@@ -0,0 +1,48 @@
+package com.springcrudengine.product_api.repository;
+
+import com.springcrudengine.product_api.model.Product;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository operations that cannot be expressed as derived or annotated queries.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Overwrites all columns of a product and increments its version in a single statement.
+     *
+     * @param product         new state of the product, identified by its id
+     * @param expectedVersion version the stored product must have, or {@code null} to update any version
+     * @return the product as it was before the update, empty when no product matched the id and expected version
+     */
+    Optional<Product> updateReturningPrevious(Product product, Long expectedVersion);
+
+    /**
+     * Sets only the given columns of a product and increments its version in a single statement.
+     *
+     * @param changes         new value of each changed column, {@code null} values clear the column
+     * @param expectedVersion version the stored product must have, or {@code null} to update any version
+     * @return the product as it was before the update, empty when no product matched the id and expected version
+     */
+    Optional<Product> patchReturningPrevious(UUID id, Map<String, Object> changes, Long expectedVersion);
+
+    /**
+     * Deletes a product in a single statement, without loading it first.
+     *
+     * @return the deleted product, empty when no product has the given id
+     */
+    Optional<Product> deleteReturningPrevious(UUID id);
+
+    /**
+     * Selects only the given properties of the matching products, one column each, without loading entities.
+     *
+     * @param properties product properties to read, each also used as the alias of its tuple element
+     */
+    List<Tuple> findProperties(Specification<Product> spec, Sort sort, List<String> properties);
+}
@@ -0,0 +1,129 @@
+package com.springcrudengine.product_api.repository;
+
+import com.springcrudengine.product_api.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Uses H2 data change delta tables ({@code OLD TABLE (UPDATE ...)}) to change a row and read back
+ * its previous state with one statement, and criteria tuple queries to read only some columns.
+ * The new state follows from the previous one: the written values, and the version incremented by one.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    static final String PREVIOUS_ROW = "SELECT id, name, description, price, available, version FROM OLD TABLE (";
+    static final String UPDATE_RETURNING_PREVIOUS = PREVIOUS_ROW
+            + "UPDATE product SET name = :name, description = :description, price = :price, "
+            + "available = :available, version = COALESCE(version, 0) + 1 "
+            + "WHERE id = :id%s)";
+    static final String DELETE_RETURNING_PREVIOUS = PREVIOUS_ROW + "DELETE FROM product WHERE id = :id)";
+    static final String EXPECTED_VERSION = " AND COALESCE(version, 0) = :expectedVersion";
+
+    /**
+     * Columns a patch may change, with the Java type of their values.
+     */
+    static final Map<String, Class<?>> PATCHABLE_COLUMNS = Map.of(
+            "name", String.class,
+            "description", String.class,
+            "price", Double.class,
+            "available", Boolean.class);
+
+    private final EntityManager entityManager;
+
+    public ProductRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public Optional<Product> updateReturningPrevious(Product product, Long expectedVersion) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", product.getId());
+        parameters.put("name", product.getName());
+        parameters.put("description", product.getDescription());
+        parameters.put("price", product.getPrice());
+        parameters.put("available", product.getAvailable());
+        return previousRow(UPDATE_RETURNING_PREVIOUS.formatted(expectedVersion == null ? "" : EXPECTED_VERSION),
+                parameters, expectedVersion);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Product> patchReturningPrevious(UUID id, Map<String, Object> changes, Long expectedVersion) {
+        Map<String, Object> parameters = new HashMap<>(changes);
+        parameters.put("id", id);
+        return previousRow(patchStatement(changes.keySet(), expectedVersion != null), parameters, expectedVersion);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Product> deleteReturningPrevious(UUID id) {
+        return previousRow(DELETE_RETURNING_PREVIOUS, Map.of("id", id), null);
+    }
+
+    private Optional<Product> previousRow(String sql, Map<String, Object> parameters, Long expectedVersion) {
+        // Bypasses the persistence context, so flush pending changes first.
+        // Clearing it also keeps a managed instance from being returned instead of the row read by the statement.
+        entityManager.flush();
+        entityManager.clear();
+        Query query = entityManager.createNativeQuery(sql, Product.class);
+        parameters.forEach(query::setParameter);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        List<?> products = query.getResultList();
+        entityManager.clear();
+        return products.stream()
+                .findFirst()
+                .map(Product.class::cast);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Tuple> findProperties(Specification<Product> spec, Sort sort, List<String> properties) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        query.multiselect(properties.stream()
+                .<Selection<?>>map(property -> root.get(property).alias(property))
+                .toList());
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Builds an UPDATE that sets only the given columns and reads back the whole previous row.
+     * Shared with {@link ReactiveProductRepository}.
+     */
+    static String patchStatement(Iterable<String> columns, boolean conditional) {
+        StringJoiner assignments = new StringJoiner(", ");
+        for (String column : columns) {
+            if (!PATCHABLE_COLUMNS.containsKey(column)) {
+                throw new IllegalArgumentException("Column " + column + " cannot be patched");
+            }
+            assignments.add(column + " = :" + column);
+        }
+        return PREVIOUS_ROW + "UPDATE product SET " + assignments + ", version = COALESCE(version, 0) + 1 "
+                + "WHERE id = :id" + (conditional ? EXPECTED_VERSION : "") + ")";
+    }
+}
@@ -0,0 +1,55 @@
+package com.springcrudengine.product_api.repository;
+
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specifications backing the product list filters. Each criterion maps to a sargable predicate,
+ * so the database can answer it with a range scan over the indexes declared on {@link Product}.
+ */
+public final class ProductSpecifications {
+
+    static final char LIKE_ESCAPE = '\\';
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        return Specification.allOf(
+                isAvailable(filter.getAvailable()),
+                priceAtLeast(filter.getMinPrice()),
+                priceAtMost(filter.getMaxPrice()),
+                nameStartsWith(filter.getNamePrefix())
+        );
+    }
+
+    public static Specification<Product> isAvailable(Boolean available) {
+        return (root, query, cb) -> available == null ? null : cb.equal(root.get("available"), available);
+    }
+
+    public static Specification<Product> priceAtLeast(Double minPrice) {
+        return (root, query, cb) -> minPrice == null ? null : cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(Double maxPrice) {
+        return (root, query, cb) -> maxPrice == null ? null : cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> nameStartsWith(String prefix) {
+        return (root, query, cb) -> prefix == null || prefix.isEmpty()
+                ? null
+                : cb.like(root.get("name"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
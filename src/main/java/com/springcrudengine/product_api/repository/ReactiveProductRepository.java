@@ -0,0 +1,231 @@
+package com.springcrudengine.product_api.repository;
+
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.model.Product;
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Non-blocking access to the product table through R2DBC, used by the {@code reactive} profile.
+ * Reads and writes the same table as {@link ProductRepository}, with the same queries:
+ * sargable filters, keyset pages and single statement conditional updates.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveProductRepository {
+
+    private static final String SELECT = "SELECT id, name, description, price, available, version FROM product";
+    private static final String INSERT =
+            "INSERT INTO product (id, name, description, price, available, version) VALUES ($1, $2, $3, $4, $5, $6)";
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final int chunkSize;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient,
+                                     TransactionalOperator transactionalOperator,
+                                     @Value("${product.batch.chunk-size:500}") int chunkSize) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.chunkSize = chunkSize;
+    }
+
+    public Mono<Product> findById(UUID id) {
+        return databaseClient.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    public Mono<Long> findVersionById(UUID id) {
+        return databaseClient.sql("SELECT COALESCE(version, 0) FROM product WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql("SELECT 1 FROM product WHERE id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .one()
+                .hasElement();
+    }
+
+    /**
+     * Emits the matching products as the rows are read, at the pace requested downstream.
+     *
+     * @param sort on {@code id}, {@code name} or {@code price} only; the properties are not escaped
+     */
+    public Flux<Product> findAll(ProductFilter filter, Sort sort) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (filter.getAvailable() != null) {
+            conditions.add("available = :available");
+            parameters.put("available", filter.getAvailable());
+        }
+        if (filter.getMinPrice() != null) {
+            conditions.add("price >= :minPrice");
+            parameters.put("minPrice", filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            conditions.add("price <= :maxPrice");
+            parameters.put("maxPrice", filter.getMaxPrice());
+        }
+        if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+            conditions.add("name LIKE :namePrefix ESCAPE '" + ProductSpecifications.LIKE_ESCAPE + "'");
+            parameters.put("namePrefix", ProductSpecifications.escapeLike(filter.getNamePrefix()) + "%");
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (sort.isSorted()) {
+            List<String> orders = new ArrayList<>();
+            sort.forEach(order -> orders.add(order.getProperty() + " " + order.getDirection().name()));
+            sql.append(" ORDER BY ").append(String.join(", ", orders));
+        }
+        return databaseClient.sql(sql.toString())
+                .bindValues(parameters)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    /**
+     * Returns up to {@code limit} products ordered by id, starting after the given id if there is one.
+     */
+    public Flux<Product> findPage(UUID after, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = after == null
+                ? databaseClient.sql(SELECT + " ORDER BY id LIMIT :limit")
+                : databaseClient.sql(SELECT + " WHERE id > :after ORDER BY id LIMIT :limit").bind("after", after);
+        return spec.bind("limit", limit)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Mono<Void> insert(Product product) {
+        return insertAll(List.of(product));
+    }
+
+    /**
+     * Inserts the products as batched statements of one chunk each, all in one transaction like {@code ProductBatchWriter}.
+     */
+    public Mono<Void> insertAll(List<Product> products) {
+        List<List<Product>> chunks = new ArrayList<>();
+        for (int from = 0; from < products.size(); from += chunkSize) {
+            chunks.add(products.subList(from, Math.min(from + chunkSize, products.size())));
+        }
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> databaseClient.inConnectionMany(connection -> {
+                            Statement statement = connection.createStatement(INSERT);
+                            for (int i = 0; i < chunk.size(); i++) {
+                                if (i > 0) {
+                                    statement.add();
+                                }
+                                bind(statement, chunk.get(i));
+                            }
+                            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                        }))
+                .as(transactionalOperator::transactional)
+                .then();
+    }
+
+    /**
+     * Same contract as {@link ProductRepositoryCustom#updateReturningPrevious}: empty when no row was updated.
+     */
+    public Mono<Product> updateReturningPrevious(Product product, Long expectedVersion) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(ProductRepositoryCustomImpl.UPDATE_RETURNING_PREVIOUS.formatted(
+                        expectedVersion == null ? "" : ProductRepositoryCustomImpl.EXPECTED_VERSION))
+                .bind("id", product.getId())
+                .bind("name", nullable(product.getName(), String.class))
+                .bind("description", nullable(product.getDescription(), String.class))
+                .bind("price", nullable(product.getPrice(), Double.class))
+                .bind("available", nullable(product.getAvailable(), Boolean.class));
+        if (expectedVersion != null) {
+            spec = spec.bind("expectedVersion", expectedVersion);
+        }
+        return spec.map(ReactiveProductRepository::toProduct).one();
+    }
+
+    /**
+     * Same contract as {@link ProductRepositoryCustom#patchReturningPrevious}: empty when no row was updated.
+     */
+    public Mono<Product> patchReturningPrevious(UUID id, Map<String, Object> changes, Long expectedVersion) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        ProductRepositoryCustomImpl.patchStatement(changes.keySet(), expectedVersion != null))
+                .bind("id", id);
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            spec = spec.bind(change.getKey(), nullable(change.getValue(),
+                    ProductRepositoryCustomImpl.PATCHABLE_COLUMNS.get(change.getKey())));
+        }
+        if (expectedVersion != null) {
+            spec = spec.bind("expectedVersion", expectedVersion);
+        }
+        return spec.map(ReactiveProductRepository::toProduct).one();
+    }
+
+    /**
+     * Same contract as {@link ProductRepositoryCustom#deleteReturningPrevious}: empty when no row was deleted.
+     */
+    public Mono<Product> deleteReturningPrevious(UUID id) {
+        return databaseClient.sql(ProductRepositoryCustomImpl.DELETE_RETURNING_PREVIOUS)
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    private static void bind(Statement statement, Product product) {
+        statement.bind(0, product.getId());
+        bindNullable(statement, 1, product.getName(), String.class);
+        bindNullable(statement, 2, product.getDescription(), String.class);
+        bindNullable(statement, 3, product.getPrice(), Double.class);
+        bindNullable(statement, 4, product.getAvailable(), Boolean.class);
+        bindNullable(statement, 5, product.getVersion(), Long.class);
+    }
+
+    /**
+     * Named parameter of {@link DatabaseClient}, typed so that {@code null} can be bound too.
+     */
+    private static Parameter nullable(Object value, Class<?> type) {
+        return value == null ? Parameters.in(type) : Parameters.in(value);
+    }
+
+    private static void bindNullable(Statement statement, int index, Object value, Class<?> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    /**
+     * Maps a row of {@link #SELECT} or of {@link ProductRepositoryCustomImpl#PREVIOUS_ROW}. Columns are read by index: the H2 driver resolves names with a map built per row.
+     */
+    private static Product toProduct(Readable row) {
+        Product product = new Product(
+                row.get(0, UUID.class),
+                row.get(1, String.class),
+                row.get(2, String.class),
+                row.get(3, Double.class),
+                row.get(4, Boolean.class));
+        product.setVersion(row.get(5, Long.class));
+        product.markNotNew();
+        return product;
+    }
+}
@@ -0,0 +1,496 @@
+package com.springcrudengine.product_api.search;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.mapper.ProductMapper;
+import com.springcrudengine.product_api.model.Product;
+import com.springcrudengine.product_api.repository.ProductRepository;
+import com.springcrudengine.product_api.service.ProductChangeListener;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over product names and descriptions.
+ * The index is loaded from the database once at startup and then kept current through
+ * {@link ProductChangeListener} callbacks, so searches never query the database.
+ * <p>
+ * Results are ranked with BM25; a term in the name weighs more than the same term in the description.
+ * Every query term also matches the indexed terms it is a prefix of, with a lower score than an exact match.
+ * A product must match all query terms to be returned.
+ * <p>
+ * Products are numbered internally and each term keeps a sorted array of product numbers with
+ * their term frequencies, so a search scans primitive arrays only and the index stays compact.
+ * <p>
+ * Updates carry a version, so an update reported after a newer one is ignored, as is an update of a product
+ * deleted meanwhile.
+ */
+@Component
+public class ProductSearchIndex implements ProductChangeListener, SmartInitializingSingleton {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_MATCH_WEIGHT = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // BM25 term frequency saturation and length normalization
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper mapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Sorted so that prefix lookups are range scans
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private ProductDTO[] products = new ProductDTO[1024];
+    private float[] lengths = new float[1024];
+    private long[] versions = new long[1024];
+    private int maxOrdinal;
+    private double totalLength;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              ProductMapper mapper,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads every product before the application starts serving requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                products.forEach(product -> {
+                    index(mapper.toDto(product), false);
+                    entityManager.detach(product);
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns the products matching every term of the query, best match first.
+     */
+    public List<ProductDTO> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<String, Postings>> matches = new ArrayList<>(queryTerms.size());
+            for (String queryTerm : queryTerms) {
+                Map<String, Postings> termMatches = expand(queryTerm);
+                if (termMatches.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(termMatches);
+            }
+
+            // Start with the most selective query term, later terms can only remove candidates
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < queryTerms.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparingLong(i -> postingCount(matches.get(i))));
+
+            // Sized by the matches of the first term, not by the catalog
+            int expected = (int) Math.min(postingCount(matches.get(order.get(0))), ordinals.size());
+            Candidates candidates = new Candidates(expected);
+            for (int i : order) {
+                boolean first = i == order.get(0);
+                score(queryTerms.get(i), matches.get(i), candidates, first);
+                if (!first) {
+                    candidates.retainMatched();
+                }
+                if (candidates.size == 0) {
+                    return List.of();
+                }
+            }
+            return top(candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void productCreated(ProductDTO product) {
+        index(product, false);
+    }
+
+    @Override
+    public void productUpdated(ProductDTO product) {
+        index(product, true);
+    }
+
+    @Override
+    public void productDeleted(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                removePostings(ordinal);
+                products[ordinal] = null;
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(ProductDTO product, boolean update) {
+        Map<String, Float> terms = termFrequencies(product);
+        float length = 0;
+        for (float frequency : terms.values()) {
+            length += frequency;
+        }
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(product.getId());
+            if (ordinal != null) {
+                if (version < versions[ordinal]) {
+                    return;
+                }
+                removePostings(ordinal);
+            } else {
+                if (update) {
+                    // Deleted since, the deletion was reported first
+                    return;
+                }
+                ordinal = freeOrdinals.isEmpty() ? maxOrdinal++ : freeOrdinals.pop();
+                if (ordinal == products.length) {
+                    products = Arrays.copyOf(products, ordinal * 2);
+                    lengths = Arrays.copyOf(lengths, ordinal * 2);
+                    versions = Arrays.copyOf(versions, ordinal * 2);
+                }
+                ordinals.put(product.getId(), ordinal);
+            }
+            products[ordinal] = product;
+            lengths[ordinal] = length;
+            versions[ordinal] = version;
+            totalLength += length;
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new Postings()).put(ordinal, term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the postings of the product currently stored under the ordinal, found by tokenizing it again.
+     */
+    private void removePostings(int ordinal) {
+        totalLength -= lengths[ordinal];
+        for (String term : termFrequencies(products[ordinal]).keySet()) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(ordinal);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private Map<String, Postings> expand(String queryTerm) {
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            return postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+        }
+        Postings exact = postings.get(queryTerm);
+        return exact == null ? Map.of() : Map.of(queryTerm, exact);
+    }
+
+    private static long postingCount(Map<String, Postings> matches) {
+        long count = 0;
+        for (Postings termPostings : matches.values()) {
+            count += termPostings.size;
+        }
+        return count;
+    }
+
+    /**
+     * Computes the BM25 score of every product matching the query term. The first term adds the products
+     * it matches as candidates, later terms only record their score for existing candidates.
+     * A product matching several expansions of the same query term keeps its best score.
+     */
+    private void score(String queryTerm, Map<String, Postings> matches, Candidates candidates, boolean first) {
+        int documentCount = ordinals.size();
+        float averageLength = (float) (totalLength / documentCount);
+        for (Map.Entry<String, Postings> match : matches.entrySet()) {
+            Postings termPostings = match.getValue();
+            float idf = (float) Math.log(1 + (documentCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+            float weight = match.getKey().equals(queryTerm) ? idf : idf * PREFIX_MATCH_WEIGHT;
+            for (int i = 0; i < termPostings.size; i++) {
+                int ordinal = termPostings.ordinals[i];
+                float frequency = termPostings.frequencies[i];
+                float score = weight * frequency * (K1 + 1)
+                        / (frequency + K1 * (1 - B + B * lengths[ordinal] / averageLength));
+                if (first) {
+                    candidates.add(ordinal, score);
+                } else {
+                    candidates.addTermScore(ordinal, score);
+                }
+            }
+        }
+    }
+
+    private List<ProductDTO> top(Candidates candidates, int limit) {
+        // Min-heap of the best candidates so far; ties go to the product indexed first so that results are stable
+        int[] heap = new int[Math.min(limit, candidates.size)];
+        int heapSize = 0;
+        for (int c = 0; c < candidates.size; c++) {
+            if (heapSize < heap.length) {
+                heap[heapSize++] = c;
+                siftUp(heap, heapSize - 1, candidates);
+            } else if (candidates.ranksAbove(c, heap[0])) {
+                heap[0] = c;
+                siftDown(heap, heapSize, candidates);
+            }
+        }
+        ProductDTO[] results = new ProductDTO[heapSize];
+        while (heapSize > 0) {
+            results[--heapSize] = products[candidates.ordinals[heap[0]]];
+            heap[0] = heap[heapSize];
+            siftDown(heap, heapSize, candidates);
+        }
+        return Arrays.asList(results);
+    }
+
+    private static void siftUp(int[] heap, int i, Candidates candidates) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!candidates.ranksAbove(heap[parent], heap[i])) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Candidates candidates) {
+        int i = 0;
+        while (true) {
+            int lowest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && candidates.ranksAbove(heap[lowest], heap[left])) {
+                lowest = left;
+            }
+            if (right < size && candidates.ranksAbove(heap[lowest], heap[right])) {
+                lowest = right;
+            }
+            if (lowest == i) {
+                return;
+            }
+            swap(heap, i, lowest);
+            i = lowest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private static Map<String, Float> termFrequencies(ProductDTO product) {
+        Map<String, Float> terms = new HashMap<>();
+        for (String term : tokenize(product.getName())) {
+            terms.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(product.getDescription())) {
+            terms.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        return terms;
+    }
+
+    /**
+     * Splits text into lower case runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letterOrDigit = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Products matching every query term scored so far, with their scores, found by ordinal through
+     * an open addressing table. Its size follows the number of candidates rather than the size of the catalog.
+     */
+    private static final class Candidates {
+
+        private int[] ordinals;
+        private float[] scores;
+        // Score of the current query term, 0 while a candidate has not matched it
+        private float[] termScores;
+        // Candidate index + 1 per slot, 0 for a free slot
+        private int[] table;
+        private int size;
+
+        Candidates(int expected) {
+            int capacity = Math.max(16, expected);
+            ordinals = new int[capacity];
+            scores = new float[capacity];
+            termScores = new float[capacity];
+            table = new int[Integer.highestOneBit(capacity - 1) << 2];
+        }
+
+        /**
+         * Adds the product, or raises its score if it is already a candidate.
+         */
+        void add(int ordinal, float score) {
+            int mask = table.length - 1;
+            int slot = slot(ordinal, mask);
+            while (table[slot] != 0) {
+                int candidate = table[slot] - 1;
+                if (ordinals[candidate] == ordinal) {
+                    scores[candidate] = Math.max(scores[candidate], score);
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+                termScores = Arrays.copyOf(termScores, size * 2);
+            }
+            ordinals[size] = ordinal;
+            scores[size] = score;
+            table[slot] = ++size;
+            if (size * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+        }
+
+        /**
+         * Records the score of the current query term if the product is a candidate.
+         */
+        void addTermScore(int ordinal, float score) {
+            int mask = table.length - 1;
+            for (int slot = slot(ordinal, mask); table[slot] != 0; slot = (slot + 1) & mask) {
+                int candidate = table[slot] - 1;
+                if (ordinals[candidate] == ordinal) {
+                    termScores[candidate] = Math.max(termScores[candidate], score);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Drops the candidates that did not match the current query term and adds its score to the others.
+         */
+        void retainMatched() {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                float termScore = termScores[i];
+                termScores[i] = 0;
+                if (termScore > 0) {
+                    ordinals[kept] = ordinals[i];
+                    scores[kept] = scores[i] + termScore;
+                    kept++;
+                }
+            }
+            if (kept < size) {
+                size = kept;
+                rehash(table.length);
+            }
+        }
+
+        boolean ranksAbove(int a, int b) {
+            return scores[a] > scores[b] || (scores[a] == scores[b] && ordinals[a] < ordinals[b]);
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            int mask = capacity - 1;
+            for (int candidate = 0; candidate < size; candidate++) {
+                int slot = slot(ordinals[candidate], mask);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = candidate + 1;
+            }
+        }
+
+        // Multiplicative hashing spreads runs of consecutive ordinals over the table
+        private static int slot(int ordinal, int mask) {
+            return (ordinal * 0x9E3779B9 >>> 16 ^ ordinal) & mask;
+        }
+    }
+
+    /**
+     * Products containing one term, as ordinals in ascending order with their weighted term frequencies.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[2];
+        private float[] frequencies = new float[2];
+        private int size;
+
+        void put(int ordinal, float frequency) {
+            int i = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (i >= 0) {
+                frequencies[i] = frequency;
+                return;
+            }
+            i = -i - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ordinals, i, ordinals, i + 1, size - i);
+            System.arraycopy(frequencies, i, frequencies, i + 1, size - i);
+            ordinals[i] = ordinal;
+            frequencies[i] = frequency;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int i = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(ordinals, i + 1, ordinals, i, size - i - 1);
+            System.arraycopy(frequencies, i + 1, frequencies, i, size - i - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.springcrudengine.product_api.service;
+
+import com.springcrudengine.product_api.model.Product;
+import com.springcrudengine.product_api.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+/**
+ * Inserts new products in one transaction, flushed in fixed size chunks.
+ * Combined with {@code hibernate.jdbc.batch_size} each chunk is sent to the database as JDBC batches, and clearing
+ * the persistence context after each chunk keeps memory use flat however large the batch is.
+ */
+@Component
+public class ProductBatchWriter {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ProductBatchWriter(ProductRepository productRepository,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product.batch.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Inserts every product or, when any insert fails at the database, none of them.
+     */
+    public void insertAll(List<Product> products) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < products.size(); from += chunkSize) {
+                productRepository.saveAll(products.subList(from, Math.min(from + chunkSize, products.size())));
+                // Send the pending inserts and drop them from the persistence context before the next chunk
+                entityManager.flush();
+                entityManager.clear();
+            }
+        });
+    }
+}
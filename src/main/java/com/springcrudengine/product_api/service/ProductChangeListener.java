@@ -0,0 +1,33 @@
+package com.springcrudengine.product_api.service;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import java.util.UUID;
+
+/**
+ * Callback for components that keep derived state about the catalog, such as indexes.
+ * {@link ProductService} calls every listener bean after a change has been committed, on the thread that committed it,
+ * so implementations must be quick and must not throw. A change made inside a caller's transaction is reported
+ * when that transaction commits, and not at all when it rolls back.
+ * <p>
+ * Updates and deletions also report the product as the writing statement found it. Listeners applying the
+ * difference between the two states stay correct when concurrent changes are reported out of order.
+ */
+public interface ProductChangeListener {
+
+    default void productCreated(ProductDTO product) {
+    }
+
+    default void productUpdated(ProductDTO product) {
+    }
+
+    default void productUpdated(ProductDTO previous, ProductDTO product) {
+        productUpdated(product);
+    }
+
+    default void productDeleted(UUID id) {
+    }
+
+    default void productDeleted(ProductDTO previous) {
+        productDeleted(previous.getId());
+    }
+}
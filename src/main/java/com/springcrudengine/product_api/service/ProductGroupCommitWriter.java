@@ -0,0 +1,170 @@
+package com.springcrudengine.product_api.service;
+
+import com.springcrudengine.product_api.exceptions.ServiceUnavailableException;
+import com.springcrudengine.product_api.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single product creates, enabled with {@code product.write.group-commit.enabled=true}.
+ * Callers hand their product to a bounded queue and wait; one writer thread collects the queued products for up to
+ * {@code max-delay} or {@code max-batch-size} products and inserts them through {@link ProductBatchWriter},
+ * so a burst of concurrent creates costs one commit per batch instead of one per product.
+ * <p>
+ * A caller returns only once its batch is committed, so an acknowledged product is as durable as with a direct insert.
+ * When the queue is full callers wait for room, at most {@code offer-timeout}, then get a
+ * {@link ServiceUnavailableException}. If a batch fails, its products are inserted again one at a time, so a product
+ * the database rejects fails only its own caller.
+ */
+@Component
+@ConditionalOnProperty(name = "product.write.group-commit.enabled", havingValue = "true")
+public class ProductGroupCommitWriter implements DisposableBean {
+
+    private final ProductBatchWriter batchWriter;
+    private final BlockingQueue<PendingInsert> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Duration offerTimeout;
+    private final Counter commits;
+    private final DistributionSummary batchSizes;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public ProductGroupCommitWriter(ProductBatchWriter batchWriter,
+                                    @Value("${product.write.group-commit.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${product.write.group-commit.max-batch-size:500}") int maxBatchSize,
+                                    @Value("${product.write.group-commit.max-delay:5ms}") Duration maxDelay,
+                                    @Value("${product.write.group-commit.offer-timeout:1s}") Duration offerTimeout,
+                                    MeterRegistry meterRegistry) {
+        this.batchWriter = batchWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.offerTimeout = offerTimeout;
+        this.commits = Counter.builder("product.write.group.commits")
+                .description("Transactions committed by the group commit writer")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("product.write.group.batch.size")
+                .description("Products inserted per group commit")
+                .register(meterRegistry);
+        meterRegistry.gauge("product.write.group.queue.size", queue, BlockingQueue::size);
+        this.writer = Thread.ofPlatform().name("product-group-commit").daemon().start(this::writeBatches);
+    }
+
+    /**
+     * Inserts the product and returns once the transaction holding it has committed.
+     *
+     * @throws ServiceUnavailableException if the queue stayed full for the whole offer timeout
+     */
+    public void insert(Product product) {
+        PendingInsert pending = new PendingInsert(product, new CompletableFuture<>());
+        try {
+            if (closed || !queue.offer(pending, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ServiceUnavailableException("Too many pending product creations, retry later");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting to create the product");
+        }
+        try {
+            pending.committed().join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private void writeBatches() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                // Wakes up regularly to notice destroy()
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Keep collecting until the window closes or the batch is full
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) == 0) {
+                        PendingInsert next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException ex) {
+                // Never interrupted on purpose: an interrupt during a write would close H2's file channel
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingInsert> batch) {
+        List<Product> products = new ArrayList<>(batch.size());
+        batch.forEach(pending -> products.add(pending.product()));
+        try {
+            batchWriter.insertAll(products);
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                batch.getFirst().committed().completeExceptionally(ex);
+            } else {
+                batch.forEach(this::writeAlone);
+            }
+            return;
+        }
+        commits.increment();
+        batchSizes.record(batch.size());
+        batch.forEach(pending -> pending.committed().complete(null));
+    }
+
+    private void writeAlone(PendingInsert pending) {
+        Product product = pending.product();
+        // The failed flush may already have marked the product as persisted, insert a fresh copy instead
+        Product copy = new Product(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getAvailable());
+        try {
+            batchWriter.insertAll(List.of(copy));
+        } catch (RuntimeException ex) {
+            pending.committed().completeExceptionally(ex);
+            return;
+        }
+        product.setVersion(copy.getVersion());
+        commits.increment();
+        batchSizes.record(1);
+        pending.committed().complete(null);
+    }
+
+    /**
+     * Stops accepting products and writes the ones already queued before the application shuts down.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        closed = true;
+        writer.join();
+        List<PendingInsert> rejected = new ArrayList<>();
+        queue.drainTo(rejected);
+        rejected.forEach(pending -> pending.committed().completeExceptionally(
+                new ServiceUnavailableException("Shutting down, retry later")));
+    }
+
+    private record PendingInsert(Product product, CompletableFuture<Void> committed) {
+    }
+}
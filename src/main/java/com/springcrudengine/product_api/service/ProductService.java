@@ -1,12 +1,39 @@
 package com.springcrudengine.product_api.service;
 
+import com.springcrudengine.product_api.cache.ProductCache;
+import com.springcrudengine.product_api.cache.ProductCatalogGeneration;
+import com.springcrudengine.product_api.cache.ProductIdFilter;
+import com.springcrudengine.product_api.cache.ProductReadCoalescer;
 import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import com.springcrudengine.product_api.dto.ProductPatchDTO;
+import com.springcrudengine.product_api.exceptions.BadRequestException;
+import com.springcrudengine.product_api.exceptions.PreconditionFailedException;
 import com.springcrudengine.product_api.exceptions.ProductNotFoundException;
+import com.springcrudengine.product_api.id.ProductIdGenerator;
 import com.springcrudengine.product_api.mapper.ProductMapper;
 import com.springcrudengine.product_api.model.Product;
 import com.springcrudengine.product_api.repository.ProductRepository;
+import com.springcrudengine.product_api.repository.ProductSpecifications;
+import com.springcrudengine.product_api.search.ProductSearchIndex;
+import com.springcrudengine.product_api.snapshot.ProductCatalogSnapshot;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service layer for handling business logic related to products.
@@ -15,45 +42,586 @@ import java.util.*;
 @Service
 public class ProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final String TIMER = "product.service";
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("name", "price");
+    // Order of the properties in sparse responses; id and version are always included
+    private static final List<String> SELECTABLE_FIELDS = List.of("id", "name", "description", "price", "available", "version");
+    private static final Map<String, Class<?>> PATCHABLE_PROPERTIES = Map.of(
+            "name", String.class,
+            "description", String.class,
+            "price", Number.class,
+            "available", Boolean.class);
+
     private final ProductMapper mapper;
     private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ProductBatchWriter batchWriter;
+    private final Optional<ProductGroupCommitWriter> groupCommitWriter;
+    private final ProductCache productCache;
+    private final ProductIdFilter idFilter;
+    private final ProductIdGenerator idGenerator;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCatalogSnapshot catalogSnapshot;
+    private final ProductCatalogGeneration catalogGeneration;
+    private final ProductReadCoalescer readCoalescer;
+    private final List<ProductChangeListener> changeListeners;
 
-    public ProductService(ProductRepository productRepository, ProductMapper mapper) {
+    public ProductService(ProductRepository productRepository, ProductMapper mapper, EntityManager entityManager,
+                          Validator validator, ProductBatchWriter batchWriter,
+                          Optional<ProductGroupCommitWriter> groupCommitWriter, ProductCache productCache,
+                          ProductIdFilter idFilter, ProductIdGenerator idGenerator, ProductSearchIndex searchIndex,
+                          ProductCatalogSnapshot catalogSnapshot, ProductCatalogGeneration catalogGeneration,
+                          ProductReadCoalescer readCoalescer, List<ProductChangeListener> changeListeners) {
         this.productRepository = productRepository;
         this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.batchWriter = batchWriter;
+        this.groupCommitWriter = groupCommitWriter;
+        this.productCache = productCache;
+        this.idFilter = idFilter;
+        this.idGenerator = idGenerator;
+        this.searchIndex = searchIndex;
+        this.catalogSnapshot = catalogSnapshot;
+        this.catalogGeneration = catalogGeneration;
+        this.readCoalescer = readCoalescer;
+        this.changeListeners = changeListeners;
     }
 
+    /**
+     * Inserts the product in its own transaction, or in a shared one when group commit is enabled,
+     * see {@link ProductGroupCommitWriter}. Returns after the product is committed either way,
+     * unless the caller's transaction is joined; listeners are then told when that transaction commits.
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "create"})
     public ProductDTO createProduct(ProductDTO dto) {
         Product product = mapper.toEntity(dto);
-        product.setId(UUID.randomUUID());
+        product.setId(idGenerator.nextId());
+        // Known to the filter before the commit, so a caller's transaction finds the products it created
+        idFilter.add(product.getId());
+        if (groupCommitWriter.isPresent()) {
+            // The writer commits on its own thread, whatever the caller's transaction does
+            groupCommitWriter.get().insert(product);
+            ProductDTO created = mapper.toDto(product);
+            productCache.put(created);
+            created(List.of(created));
+            return created;
+        }
         productRepository.save(product);
-        return mapper.toDto(product);
+        ProductDTO created = mapper.toDto(product);
+        afterCommit(() -> {
+            productCache.put(created);
+            created(List.of(created));
+        });
+        return created;
+    }
+
+    /**
+     * Validates every product of the batch, then inserts them all with JDBC batching.
+     * Nothing is written when any item is invalid; the error lists each failing item by its index.
+     * Valid batches are inserted in one transaction, see {@link ProductBatchWriter}, so a batch the database
+     * rejects is not written either.
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "create_batch"})
+    public List<ProductDTO> createProducts(List<ProductDTO> dtos) {
+        validateBatch(validator, dtos);
+
+        List<Product> products = new ArrayList<>(dtos.size());
+        for (ProductDTO dto : dtos) {
+            Product product = mapper.toEntity(dto);
+            product.setId(idGenerator.nextId());
+            idFilter.add(product.getId());
+            products.add(product);
+        }
+        batchWriter.insertAll(products);
+        List<ProductDTO> created = mapper.toDto(products);
+        afterCommit(() -> created(created));
+        return created;
     }
 
+    private void created(List<ProductDTO> created) {
+        for (ProductDTO product : created) {
+            changeListeners.forEach(listener -> listener.productCreated(product));
+        }
+        catalogGeneration.advance();
+    }
+
+    /**
+     * Returns the product, or empty without querying the database when {@link ProductIdFilter} rules the id out.
+     * Inside a transaction the product is read from the database and not cached, as it may not be committed.
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "get"})
     public Optional<ProductDTO> getProduct(UUID id) {
-        return productRepository.findById(id)
-                .map(mapper::toDto);
+        if (!idFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return productRepository.findById(id).map(mapper::toDto);
+        }
+        return productCache.get(id, key -> productRepository.findById(key).map(mapper::toDto));
     }
 
+    /**
+     * Returns only the requested properties of a product, plus its id and version.
+     * Served from the cache when the product is there, otherwise only the requested columns are selected.
+     *
+     * @param fields comma separated product properties, e.g. {@code name,price}
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "get_fields"})
+    public Optional<Map<String, Object>> getProductFields(UUID id, String fields) {
+        List<String> properties = selectedFields(fields);
+        if (!idFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        Optional<ProductDTO> cached = productCache.getIfPresent(id);
+        if (cached.isPresent()) {
+            return cached.map(product -> toFields(product, properties));
+        }
+        Specification<Product> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return productRepository.findProperties(byId, Sort.unsorted(), properties).stream()
+                .findFirst()
+                .map(row -> toFields(row, properties));
+    }
+
+    /**
+     * Returns the current version of a product, from the cache when possible,
+     * otherwise with a query that reads only the version column.
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "get_version"})
+    public Optional<Long> getProductVersion(UUID id) {
+        Optional<ProductDTO> cached = productCache.getIfPresent(id);
+        if (cached.isPresent()) {
+            return cached.map(ProductDTO::getVersion);
+        }
+        if (!idFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        return productRepository.findVersionById(id);
+    }
+
+    @Timed(value = TIMER, extraTags = {"operation", "list"})
     public List<ProductDTO> getAllProducts() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return findInSnapshot(new ProductFilter(), null);
+        }
         return mapper.toDto(new ArrayList<>(productRepository.findAll()));
     }
 
+    /**
+     * Like {@link #findProducts}, but returns only the requested properties plus id and version.
+     * Inside a transaction, only those columns are selected.
+     *
+     * @param fields comma separated product properties, e.g. {@code name,price}
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "find_fields"})
+    public List<Map<String, Object>> findProductFields(ProductFilter filter, String sort, String fields) {
+        List<String> properties = selectedFields(fields);
+        checkPriceRange(filter);
+        List<Map<String, Object>> products = new ArrayList<>();
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            for (ProductDTO product : findInSnapshot(filter, sort)) {
+                products.add(toFields(product, properties));
+            }
+            return products;
+        }
+        for (Tuple row : productRepository.findProperties(ProductSpecifications.matching(filter), toSort(sort), properties)) {
+            products.add(toFields(row, properties));
+        }
+        return products;
+    }
+
+    /**
+     * Returns the products matching the filter, scanned from {@link ProductCatalogSnapshot} without a query.
+     * Identical concurrent calls share one scan, see {@link ProductReadCoalescer}.
+     * Inside a transaction, which the snapshot knows nothing about, the database filters and sorts them instead.
+     *
+     * @param sort {@code name} or {@code price}, optionally followed by {@code ,asc} or {@code ,desc}; may be {@code null}
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "find"})
+    public List<ProductDTO> findProducts(ProductFilter filter, String sort) {
+        checkPriceRange(filter);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return findInSnapshot(filter, sort);
+        }
+        return mapper.toDto(productRepository.findAll(ProductSpecifications.matching(filter), toSort(sort)));
+    }
+
+    /**
+     * Returns the products whose name or description contains every word of the query, best match first.
+     * Words also match as prefixes. Answered from {@link ProductSearchIndex} without querying the database.
+     *
+     * @param limit maximum number of results, between 1 and {@value #MAX_SEARCH_LIMIT}
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "search"})
+    public List<ProductDTO> searchProducts(String query, Integer limit) {
+        return searchIndex.search(query, searchLimit(query, limit));
+    }
+
+    /**
+     * Hands every product to the given consumer, one at a time, while the rows are read from the database.
+     * Rows are detached right after mapping, so memory use does not grow with the catalog size.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = TIMER, extraTags = {"operation", "export"})
+    public void exportProducts(Consumer<ProductDTO> consumer) {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            products.forEach(product -> {
+                consumer.accept(mapper.toDto(product));
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    /**
+     * Returns one page of products ordered by id, starting after the given cursor.
+     * Each page is a primary-key range scan, so its cost does not depend on how deep the client pages.
+     * Outside a transaction, identical concurrent calls share one query.
+     *
+     * @param cursor opaque cursor returned with the previous page, or {@code null} for the first page
+     * @param size   number of products per page, between 1 and {@value #MAX_PAGE_SIZE}
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "page"})
+    public ProductPageDTO getProductPage(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loadProductPage(cursor, pageSize);
+        }
+        List<Object> key = Arrays.asList("page", cursor == null ? "" : cursor, pageSize, catalogGeneration.current());
+        return readCoalescer.coalesce("page", key, () -> loadProductPage(cursor, pageSize));
+    }
+
+    private ProductPageDTO loadProductPage(String cursor, int pageSize) {
+        // Fetch one extra row to find out whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<Product> products = cursor == null || cursor.isEmpty()
+                ? productRepository.findAllByOrderByIdAsc(limit)
+                : productRepository.findByIdGreaterThanOrderByIdAsc(decodeCursor(cursor), limit);
+
+        String next = null;
+        if (products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            next = encodeCursor(products.get(pageSize - 1).getId());
+        }
+        return new ProductPageDTO(mapper.toDto(products), next);
+    }
+
+    /**
+     * Scans the snapshot, or joins an identical scan in progress. The key includes the catalog generation read
+     * before the scan, so a call made after a change has returned never gets the result of a scan started before it.
+     */
+    private List<ProductDTO> findInSnapshot(ProductFilter filter, String sort) {
+        Sort order = toSort(sort);
+        List<Object> key = Arrays.asList("find", filter, order, catalogGeneration.current());
+        return readCoalescer.coalesce("find", key, () -> catalogSnapshot.find(filter, order));
+    }
+
+    @Timed(value = TIMER, extraTags = {"operation", "update"})
     public ProductDTO updateProduct(UUID id, ProductDTO dto) {
-        if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found");
+        return updateProduct(id, dto, null);
+    }
+
+    /**
+     * Replaces a product, optionally only if it still has the expected version.
+     *
+     * @param expectedVersion version the client last saw, or {@code null} for an unconditional update
+     * @throws ProductNotFoundException    if no product has the given id
+     * @throws PreconditionFailedException if the product has been modified since the expected version
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "update"})
+    public ProductDTO updateProduct(UUID id, ProductDTO dto, Long expectedVersion) {
+        if (!idFilter.mightContain(id)) {
+            throw new ProductNotFoundException("Product not found");
         }
         Product product = mapper.toEntity(dto);
         product.setId(id);
-        productRepository.save(product);
-        return mapper.toDto(product);
+        Optional<Product> previous = productRepository.updateReturningPrevious(product, expectedVersion);
+        if (previous.isEmpty()) {
+            // Only the failure path pays for a second lookup to tell the two cases apart
+            if (expectedVersion != null && productRepository.existsById(id)) {
+                throw new PreconditionFailedException("Product has been modified by another request");
+            }
+            throw new ProductNotFoundException("Product not found");
+        }
+        productCache.invalidate(id);
+        ProductDTO before = mapper.toDto(previous.get());
+        product.setVersion(before.getVersion() + 1);
+        ProductDTO updated = mapper.toDto(product);
+        afterCommit(() -> updated(before, updated));
+        return updated;
+    }
+
+    /**
+     * Changes only the properties present in the patch, optionally only if the product still has the expected version.
+     * The UPDATE sets just the patched columns and returns the whole previous row, so the product is not read first.
+     *
+     * @param expectedVersion version the client last saw, or {@code null} for an unconditional patch
+     * @throws BadRequestException         if a property is unknown, read-only or breaks a {@link ProductDTO} constraint
+     * @throws ProductNotFoundException    if no product has the given id
+     * @throws PreconditionFailedException if the product has been modified since the expected version
+     */
+    @Timed(value = TIMER, extraTags = {"operation", "patch"})
+    public ProductDTO patchProduct(UUID id, ProductPatchDTO patch, Long expectedVersion) {
+        Map<String, Object> changes = validatePatch(validator, patch);
+        if (!idFilter.mightContain(id)) {
+            throw new ProductNotFoundException("Product not found");
+        }
+        if (changes.isEmpty()) {
+            // An empty merge patch changes nothing, answer with the current product
+            ProductDTO current = getProduct(id).orElseThrow(() -> new ProductNotFoundException("Product not found"));
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new PreconditionFailedException("Product has been modified by another request");
+            }
+            return current;
+        }
+        Optional<Product> previous = productRepository.patchReturningPrevious(id, changes, expectedVersion);
+        if (previous.isEmpty()) {
+            if (expectedVersion != null && productRepository.existsById(id)) {
+                throw new PreconditionFailedException("Product has been modified by another request");
+            }
+            throw new ProductNotFoundException("Product not found");
+        }
+        productCache.invalidate(id);
+        ProductDTO before = mapper.toDto(previous.get());
+        ProductDTO patched = applyPatch(before, changes);
+        afterCommit(() -> updated(before, patched));
+        return patched;
+    }
+
+    private void updated(ProductDTO before, ProductDTO product) {
+        // A reader may have cached the row again before the commit made the change visible
+        productCache.invalidate(product.getId());
+        changeListeners.forEach(listener -> listener.productUpdated(before, product));
+        catalogGeneration.advance();
     }
 
+    @Timed(value = TIMER, extraTags = {"operation", "delete"})
     public void deleteProduct(UUID id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
-        } else {
+        Optional<Product> previous = idFilter.mightContain(id) ? productRepository.deleteReturningPrevious(id) : Optional.empty();
+        if (previous.isEmpty()) {
             throw new ProductNotFoundException("Product not found");
         }
+        productCache.invalidate(id);
+        ProductDTO deleted = mapper.toDto(previous.get());
+        afterCommit(() -> {
+            productCache.invalidate(id);
+            changeListeners.forEach(listener -> listener.productDeleted(deleted));
+            catalogGeneration.advance();
+        });
+    }
+
+    /**
+     * Runs the side effects of a change once the change is committed. Inside a caller's transaction they wait
+     * for its commit and are dropped when it rolls back, otherwise the statement has committed already.
+     */
+    private static void afterCommit(Runnable effects) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            effects.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                effects.run();
+            }
+        });
+    }
+
+    // Request checks shared with ReactiveProductService
+
+    static void validateBatch(Validator validator, List<ProductDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one product");
+        }
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch must not contain more than " + MAX_BATCH_SIZE + " products");
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            ProductDTO dto = dtos.get(i);
+            if (dto == null) {
+                errors.add("[" + i + "] product must not be null");
+                continue;
+            }
+            for (ConstraintViolation<ProductDTO> violation : validator.validate(dto)) {
+                errors.add("[" + i + "] " + violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            Collections.sort(errors);
+            throw new BadRequestException(String.join("; ", errors));
+        }
+    }
+
+    /**
+     * Checks each patched property against its {@link ProductDTO} constraints.
+     *
+     * @return the typed new value of each patched column, in body order
+     */
+    static Map<String, Object> validatePatch(Validator validator, ProductPatchDTO patch) {
+        if (patch == null) {
+            throw new BadRequestException("Patch must be a JSON object");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        patch.getChanges().forEach((property, value) -> {
+            Class<?> type = PATCHABLE_PROPERTIES.get(property);
+            if (type == null) {
+                errors.add(property + ": cannot be patched");
+                return;
+            }
+            if (value != null && !type.isInstance(value)) {
+                errors.add(property + ": must be a " + (type == Number.class ? "number" : type.getSimpleName().toLowerCase(Locale.ROOT)));
+                return;
+            }
+            Object typed = value instanceof Number number ? (Object) number.doubleValue() : value;
+            for (ConstraintViolation<ProductDTO> violation : validator.validateValue(ProductDTO.class, property, typed)) {
+                errors.add(property + ": " + violation.getMessage());
+            }
+            // Product properties and columns share their names
+            changes.put(property, typed);
+        });
+        if (!errors.isEmpty()) {
+            Collections.sort(errors);
+            throw new BadRequestException(String.join("; ", errors));
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the product as written by a patch: the previous state with the patched properties and the next version.
+     */
+    static ProductDTO applyPatch(ProductDTO previous, Map<String, Object> changes) {
+        ProductDTO patched = new ProductDTO(previous.getId(), previous.getName(), previous.getDescription(),
+                previous.getPrice(), previous.getAvailable(), previous.getVersion() + 1);
+        changes.forEach((property, value) -> {
+            switch (property) {
+                case "name" -> patched.setName((String) value);
+                case "description" -> patched.setDescription((String) value);
+                case "price" -> patched.setPrice((Double) value);
+                case "available" -> patched.setAvailable((Boolean) value);
+                default -> throw new IllegalArgumentException("Unknown product property " + property);
+            }
+        });
+        return patched;
+    }
+
+    /**
+     * Parses a sparse fieldset into the properties to select, in response order, always with id and version.
+     */
+    static List<String> selectedFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new BadRequestException("Fields must name at least one product property");
+        }
+        Set<String> requested = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String property = field.trim();
+            if (!SELECTABLE_FIELDS.contains(property)) {
+                throw new BadRequestException("Fields can only contain " + String.join(", ", SELECTABLE_FIELDS));
+            }
+            requested.add(property);
+        }
+        requested.add("id");
+        requested.add("version");
+        return SELECTABLE_FIELDS.stream().filter(requested::contains).toList();
+    }
+
+    private static Map<String, Object> toFields(Tuple row, List<String> properties) {
+        Map<String, Object> product = new LinkedHashMap<>();
+        for (String property : properties) {
+            product.put(property, row.get(property));
+        }
+        // Rows written before versioning was introduced have no version yet, as in ProductMapper
+        if (product.get("version") == null) {
+            product.put("version", 0L);
+        }
+        return product;
+    }
+
+    private static Map<String, Object> toFields(ProductDTO dto, List<String> properties) {
+        Map<String, Object> product = new LinkedHashMap<>();
+        for (String property : properties) {
+            product.put(property, switch (property) {
+                case "id" -> dto.getId();
+                case "name" -> dto.getName();
+                case "description" -> dto.getDescription();
+                case "price" -> dto.getPrice();
+                case "available" -> dto.getAvailable();
+                case "version" -> dto.getVersion();
+                default -> throw new IllegalArgumentException("Unknown product property " + property);
+            });
+        }
+        return product;
+    }
+
+    static void checkPriceRange(ProductFilter filter) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+    static int pageSize(Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    static int searchLimit(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        int maxResults = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (maxResults < 1 || maxResults > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return maxResults;
+    }
+
+    static Sort toSort(String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return Sort.unsorted();
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property) || parts.length > 2) {
+            throw new BadRequestException("Products can only be sorted by " + String.join(" or ", new TreeSet<>(SORTABLE_PROPERTIES)));
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new BadRequestException("Sort direction must be asc or desc"));
+        }
+        // Break ties on the primary key so that equal names or prices keep a stable order
+        return Sort.by(direction, property).and(Sort.by("id"));
+    }
+
+    static String encodeCursor(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    static UUID decodeCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (bytes.length != 16) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
     }
 }
@@ -0,0 +1,217 @@
+package com.springcrudengine.product_api.service;
+
+import com.springcrudengine.product_api.cache.ProductCatalogGeneration;
+import com.springcrudengine.product_api.cache.ProductIdFilter;
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import com.springcrudengine.product_api.dto.ProductPatchDTO;
+import com.springcrudengine.product_api.exceptions.PreconditionFailedException;
+import com.springcrudengine.product_api.exceptions.ProductNotFoundException;
+import com.springcrudengine.product_api.id.ProductIdGenerator;
+import com.springcrudengine.product_api.mapper.ProductMapper;
+import com.springcrudengine.product_api.model.Product;
+import com.springcrudengine.product_api.repository.ReactiveProductRepository;
+import com.springcrudengine.product_api.search.ProductSearchIndex;
+import jakarta.validation.Validator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link ProductService} for the {@code reactive} profile.
+ * Applies the same request checks and error types, and notifies the same {@link ProductChangeListener}s,
+ * but never blocks the calling thread: every database call goes through {@link ReactiveProductRepository}.
+ * The product cache is not used, its loader is blocking.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository productRepository;
+    private final ProductMapper mapper;
+    private final Validator validator;
+    private final ProductIdFilter idFilter;
+    private final ProductIdGenerator idGenerator;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCatalogGeneration catalogGeneration;
+    private final List<ProductChangeListener> changeListeners;
+
+    public ReactiveProductService(ReactiveProductRepository productRepository, ProductMapper mapper, Validator validator,
+                                  ProductIdFilter idFilter, ProductIdGenerator idGenerator, ProductSearchIndex searchIndex,
+                                  ProductCatalogGeneration catalogGeneration, List<ProductChangeListener> changeListeners) {
+        this.productRepository = productRepository;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.idFilter = idFilter;
+        this.idGenerator = idGenerator;
+        this.searchIndex = searchIndex;
+        this.catalogGeneration = catalogGeneration;
+        this.changeListeners = changeListeners;
+    }
+
+    public Mono<ProductDTO> createProduct(ProductDTO dto) {
+        Product product = newProduct(dto);
+        return productRepository.insert(product)
+                .then(Mono.fromSupplier(() -> mapper.toDto(product)))
+                .doOnNext(created -> {
+                    changeListeners.forEach(listener -> listener.productCreated(created));
+                    catalogGeneration.advance();
+                });
+    }
+
+    /**
+     * Validates every product of the batch before inserting any, like {@link ProductService#createProducts}.
+     */
+    public Mono<List<ProductDTO>> createProducts(List<ProductDTO> dtos) {
+        return Mono.defer(() -> {
+            ProductService.validateBatch(validator, dtos);
+            List<Product> products = new ArrayList<>(dtos.size());
+            for (ProductDTO dto : dtos) {
+                products.add(newProduct(dto));
+            }
+            return productRepository.insertAll(products)
+                    .then(Mono.fromSupplier(() -> mapper.toDto(products)))
+                    .doOnNext(created -> {
+                        created.forEach(product -> changeListeners.forEach(listener -> listener.productCreated(product)));
+                        catalogGeneration.advance();
+                    });
+        });
+    }
+
+    public Mono<ProductDTO> getProduct(UUID id) {
+        if (!idFilter.mightContain(id)) {
+            return Mono.empty();
+        }
+        return productRepository.findById(id).map(mapper::toDto);
+    }
+
+    public Mono<Long> getProductVersion(UUID id) {
+        if (!idFilter.mightContain(id)) {
+            return Mono.empty();
+        }
+        return productRepository.findVersionById(id);
+    }
+
+    /**
+     * Emits the products matching the filter as they are read, filtered and sorted by the database.
+     *
+     * @param sort {@code name} or {@code price}, optionally followed by {@code ,asc} or {@code ,desc}; may be {@code null}
+     */
+    public Flux<ProductDTO> findProducts(ProductFilter filter, String sort) {
+        return Flux.defer(() -> {
+            ProductService.checkPriceRange(filter);
+            Sort order = ProductService.toSort(sort);
+            return productRepository.findAll(filter, order).map(mapper::toDto);
+        });
+    }
+
+    public Mono<ProductPageDTO> getProductPage(String cursor, Integer size) {
+        return Mono.defer(() -> {
+            int pageSize = ProductService.pageSize(size);
+            UUID after = cursor == null || cursor.isEmpty() ? null : ProductService.decodeCursor(cursor);
+            // Fetch one extra row to find out whether another page follows
+            return productRepository.findPage(after, pageSize + 1)
+                    .collectList()
+                    .map(products -> {
+                        String next = null;
+                        if (products.size() > pageSize) {
+                            products = products.subList(0, pageSize);
+                            next = ProductService.encodeCursor(products.get(pageSize - 1).getId());
+                        }
+                        return new ProductPageDTO(mapper.toDto(products), next);
+                    });
+        });
+    }
+
+    public Flux<ProductDTO> searchProducts(String query, Integer limit) {
+        return Flux.defer(() -> Flux.fromIterable(searchIndex.search(query, ProductService.searchLimit(query, limit))));
+    }
+
+    /**
+     * Replaces a product, optionally only if it still has the expected version.
+     * Fails with {@link ProductNotFoundException} or {@link PreconditionFailedException} like {@link ProductService#updateProduct}.
+     */
+    public Mono<ProductDTO> updateProduct(UUID id, ProductDTO dto, Long expectedVersion) {
+        if (!idFilter.mightContain(id)) {
+            return Mono.error(new ProductNotFoundException("Product not found"));
+        }
+        Product product = mapper.toEntity(dto);
+        product.setId(id);
+        return productRepository.updateReturningPrevious(product, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> {
+                    // Only the failure path pays for a second lookup to tell the two cases apart
+                    Mono<Boolean> exists = expectedVersion == null ? Mono.just(false) : productRepository.existsById(id);
+                    return exists.flatMap(found -> Mono.error(found
+                            ? new PreconditionFailedException("Product has been modified by another request")
+                            : new ProductNotFoundException("Product not found")));
+                }))
+                .map(previous -> {
+                    ProductDTO before = mapper.toDto(previous);
+                    product.setVersion(before.getVersion() + 1);
+                    ProductDTO updated = mapper.toDto(product);
+                    changeListeners.forEach(listener -> listener.productUpdated(before, updated));
+                    catalogGeneration.advance();
+                    return updated;
+                });
+    }
+
+    /**
+     * Changes only the properties present in the patch, see {@link ProductService#patchProduct}.
+     */
+    public Mono<ProductDTO> patchProduct(UUID id, ProductPatchDTO patch, Long expectedVersion) {
+        return Mono.defer(() -> {
+            Map<String, Object> changes = ProductService.validatePatch(validator, patch);
+            if (!idFilter.mightContain(id)) {
+                return Mono.error(new ProductNotFoundException("Product not found"));
+            }
+            if (changes.isEmpty()) {
+                return getProduct(id)
+                        .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found")))
+                        .filter(current -> expectedVersion == null || expectedVersion.equals(current.getVersion()))
+                        .switchIfEmpty(Mono.error(() -> new PreconditionFailedException("Product has been modified by another request")));
+            }
+            return productRepository.patchReturningPrevious(id, changes, expectedVersion)
+                    .switchIfEmpty(Mono.defer(() -> {
+                        Mono<Boolean> exists = expectedVersion == null ? Mono.just(false) : productRepository.existsById(id);
+                        return exists.flatMap(found -> Mono.error(found
+                                ? new PreconditionFailedException("Product has been modified by another request")
+                                : new ProductNotFoundException("Product not found")));
+                    }))
+                    .map(previous -> {
+                        ProductDTO before = mapper.toDto(previous);
+                        ProductDTO patched = ProductService.applyPatch(before, changes);
+                        changeListeners.forEach(listener -> listener.productUpdated(before, patched));
+                        catalogGeneration.advance();
+                        return patched;
+                    });
+        });
+    }
+
+    public Mono<Void> deleteProduct(UUID id) {
+        if (!idFilter.mightContain(id)) {
+            return Mono.error(new ProductNotFoundException("Product not found"));
+        }
+        return productRepository.deleteReturningPrevious(id)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found")))
+                .doOnNext(previous -> {
+                    ProductDTO deleted = mapper.toDto(previous);
+                    changeListeners.forEach(listener -> listener.productDeleted(deleted));
+                    catalogGeneration.advance();
+                })
+                .then();
+    }
+
+    private Product newProduct(ProductDTO dto) {
+        Product product = mapper.toEntity(dto);
+        product.setId(idGenerator.nextId());
+        product.setVersion(0L);
+        return product;
+    }
+}
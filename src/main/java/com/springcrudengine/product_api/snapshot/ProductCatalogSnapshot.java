@@ -0,0 +1,309 @@
+package com.springcrudengine.product_api.snapshot;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.mapper.ProductMapper;
+import com.springcrudengine.product_api.model.Product;
+import com.springcrudengine.product_api.repository.ProductRepository;
+import com.springcrudengine.product_api.service.ProductChangeListener;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Read model of the whole catalog for the filtered product list, kept column by column in primitive arrays:
+ * ids as two {@code long} halves, prices as {@code double} ({@code NaN} when unset), versions as {@code long},
+ * and availability and row liveness as bitsets. Names and descriptions are kept as references only to check
+ * name prefixes and to build the returned products.
+ * <p>
+ * The snapshot is loaded once at startup and then kept current through {@link ProductChangeListener} callbacks.
+ * A scan evaluates the filter 64 rows at a time into a bitset of matches without allocating per row, splitting
+ * large catalogs across the common fork-join pool; only the matching rows are turned into {@link ProductDTO}s.
+ * <p>
+ * Updates carry a version, so an update reported after a newer one is ignored, as is an update of a product
+ * deleted meanwhile. The snapshot only sees committed changes: a caller inside a transaction of its own should
+ * read the database instead.
+ */
+@Component
+public class ProductCatalogSnapshot implements ProductChangeListener, SmartInitializingSingleton {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // Words of 64 rows per fork-join task, tasks never share a word of the result
+    private static final int WORDS_PER_TASK = 256;
+    private static final Comparator<ProductDTO> BY_ID = (a, b) -> compareIds(a.getId(), b.getId());
+
+    private final ProductRepository productRepository;
+    private final ProductMapper mapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> rows = new HashMap<>();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private long[] idHigh = new long[INITIAL_CAPACITY];
+    private long[] idLow = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private long[] live = new long[INITIAL_CAPACITY / 64];
+    // A row with unknown availability is in neither set, like NULL it matches neither filter value
+    private long[] available = new long[INITIAL_CAPACITY / 64];
+    private long[] unavailable = new long[INITIAL_CAPACITY / 64];
+    private int rowCount;
+
+    public ProductCatalogSnapshot(ProductRepository productRepository,
+                                  ProductMapper mapper,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${product.snapshot.parallel-threshold:65536}") int parallelThreshold) {
+        this.productRepository = productRepository;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Loads every product before the application starts serving requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                products.forEach(product -> {
+                    put(mapper.toDto(product), false);
+                    entityManager.detach(product);
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns the products matching the filter, in the order the database would return them for the same sort.
+     * Unsorted, they come in id order like a primary key scan, that is in creation order for time-ordered ids.
+     * Rows are mostly in id order already, only reused rows of deleted products are not, so this sort is cheap.
+     *
+     * @param sort orders by {@code name}, {@code price} and {@code id}, as built by {@code ProductService}
+     */
+    public List<ProductDTO> find(ProductFilter filter, Sort sort) {
+        List<ProductDTO> products;
+        lock.readLock().lock();
+        try {
+            long[] matches = new long[(rowCount + 63) >>> 6];
+            Scan scan = new Scan(filter, matches, 0, matches.length);
+            if (rowCount >= parallelThreshold) {
+                ForkJoinPool.commonPool().invoke(scan);
+            } else {
+                scan.compute();
+            }
+
+            int count = 0;
+            for (long word : matches) {
+                count += Long.bitCount(word);
+            }
+            products = new ArrayList<>(count);
+            for (int w = 0; w < matches.length; w++) {
+                for (long bits = matches[w]; bits != 0; bits &= bits - 1) {
+                    products.add(toDto((w << 6) + Long.numberOfTrailingZeros(bits)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        products.sort(sort.isSorted() ? comparator(sort) : BY_ID);
+        return products;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void productCreated(ProductDTO product) {
+        put(product, false);
+    }
+
+    @Override
+    public void productUpdated(ProductDTO previous, ProductDTO product) {
+        put(product, true);
+    }
+
+    @Override
+    public void productDeleted(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rows.remove(id);
+            if (row != null) {
+                live[row >>> 6] &= ~(1L << row);
+                names[row] = null;
+                descriptions[row] = null;
+                freeRows.push(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(ProductDTO product, boolean update) {
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        lock.writeLock().lock();
+        try {
+            Integer row = rows.get(product.getId());
+            if (row == null) {
+                if (update) {
+                    // Deleted since, the deletion was reported first
+                    return;
+                }
+                row = freeRows.isEmpty() ? rowCount++ : freeRows.pop();
+                if (row == idHigh.length) {
+                    grow(row * 2);
+                }
+                rows.put(product.getId(), row);
+            } else if (version < versions[row]) {
+                return;
+            }
+            idHigh[row] = product.getId().getMostSignificantBits();
+            idLow[row] = product.getId().getLeastSignificantBits();
+            prices[row] = product.getPrice() == null ? Double.NaN : product.getPrice();
+            versions[row] = version;
+            names[row] = product.getName();
+            descriptions[row] = product.getDescription();
+            set(live, row, true);
+            set(available, row, Boolean.TRUE.equals(product.getAvailable()));
+            set(unavailable, row, Boolean.FALSE.equals(product.getAvailable()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void grow(int capacity) {
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        live = Arrays.copyOf(live, capacity / 64);
+        available = Arrays.copyOf(available, capacity / 64);
+        unavailable = Arrays.copyOf(unavailable, capacity / 64);
+    }
+
+    private static void set(long[] bits, int row, boolean value) {
+        if (value) {
+            bits[row >>> 6] |= 1L << row;
+        } else {
+            bits[row >>> 6] &= ~(1L << row);
+        }
+    }
+
+    private ProductDTO toDto(int row) {
+        Boolean availability = (available[row >>> 6] & 1L << row) != 0 ? Boolean.TRUE
+                : (unavailable[row >>> 6] & 1L << row) != 0 ? Boolean.FALSE
+                : null;
+        return new ProductDTO(new UUID(idHigh[row], idLow[row]), names[row], descriptions[row],
+                Double.isNaN(prices[row]) ? null : prices[row], availability, versions[row]);
+    }
+
+    /**
+     * Orders like H2: unset prices before all others ascending, ids compared as unsigned 128-bit numbers.
+     */
+    private static Comparator<ProductDTO> comparator(Sort sort) {
+        Comparator<ProductDTO> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductDTO> property = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing(ProductDTO::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "price" -> Comparator.comparing(ProductDTO::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "id" -> (a, b) -> compareIds(a.getId(), b.getId());
+                default -> throw new IllegalArgumentException("Unknown sort property " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                property = property.reversed();
+            }
+            comparator = comparator == null ? property : comparator.thenComparing(property);
+        }
+        return comparator;
+    }
+
+    private static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    /**
+     * Evaluates the filter over a range of 64-row words, writing one bit per matching row.
+     * Runs on the thread holding the read lock or on fork-join workers it waits for, which read the columns it saw.
+     */
+    private final class Scan extends RecursiveAction {
+
+        private final ProductFilter filter;
+        private final long[] matches;
+        private final int fromWord;
+        private final int toWord;
+
+        Scan(ProductFilter filter, long[] matches, int fromWord, int toWord) {
+            this.filter = filter;
+            this.matches = matches;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWord - fromWord > WORDS_PER_TASK && getPool() != null) {
+                int middle = (fromWord + toWord) >>> 1;
+                invokeAll(new Scan(filter, matches, fromWord, middle), new Scan(filter, matches, middle, toWord));
+                return;
+            }
+
+            Boolean availability = filter.getAvailable();
+            boolean priceRange = filter.getMinPrice() != null || filter.getMaxPrice() != null;
+            // A NaN price fails both comparisons, so unset prices never match a range
+            double minPrice = filter.getMinPrice() == null ? Double.NEGATIVE_INFINITY : filter.getMinPrice();
+            double maxPrice = filter.getMaxPrice() == null ? Double.POSITIVE_INFINITY : filter.getMaxPrice();
+            String namePrefix = filter.getNamePrefix() == null || filter.getNamePrefix().isEmpty() ? null : filter.getNamePrefix();
+
+            for (int w = fromWord; w < toWord; w++) {
+                long bits = live[w];
+                if (availability != null) {
+                    bits &= availability ? available[w] : unavailable[w];
+                }
+                if (bits != 0 && priceRange) {
+                    // Branch-free over all 64 rows of the word, the JIT can unroll and vectorize it
+                    int base = w << 6;
+                    long inRange = 0;
+                    for (int i = 0; i < 64; i++) {
+                        double price = prices[base + i];
+                        inRange |= (price >= minPrice & price <= maxPrice ? 1L : 0L) << i;
+                    }
+                    bits &= inRange;
+                }
+                if (namePrefix != null) {
+                    for (long candidates = bits; candidates != 0; candidates &= candidates - 1) {
+                        int row = (w << 6) + Long.numberOfTrailingZeros(candidates);
+                        if (names[row] == null || !names[row].startsWith(namePrefix)) {
+                            bits &= ~(1L << row);
+                        }
+                    }
+                }
+                matches[w] = bits;
+            }
+        }
+    }
+}
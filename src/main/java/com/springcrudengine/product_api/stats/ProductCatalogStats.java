@@ -0,0 +1,137 @@
+package com.springcrudengine.product_api.stats;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductStatsDTO;
+import com.springcrudengine.product_api.repository.ProductRepository;
+import com.springcrudengine.product_api.service.ProductChangeListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Product count, available count and min/average/max price of the whole catalog, kept current in memory.
+ * The figures are loaded with one aggregate query at startup, then every {@link ProductChangeListener} callback
+ * subtracts the previous state of the product and adds the new one. Those differences add up to the same result
+ * in any order, so changes reported out of order by concurrent writers still leave exact figures.
+ * <p>
+ * Prices are counted in a sorted map, so the minimum and maximum survive deletions. Each change publishes
+ * an immutable snapshot; {@link #stats()} only reads it and never waits for writers.
+ */
+@Component
+public class ProductCatalogStats implements ProductChangeListener, SmartInitializingSingleton {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Products per price; a count may be briefly negative while a removal is reported before its addition
+    private final TreeMap<Double, Long> prices = new TreeMap<>();
+    private long total;
+    private long inStock;
+    private long priced;
+    private BigDecimal priceSum = BigDecimal.ZERO;
+    private volatile Snapshot snapshot = new Snapshot(0, 0, null, null, null);
+
+    public ProductCatalogStats(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads the figures before the application starts serving requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock.lock();
+            try {
+                for (ProductRepository.PriceCount count : productRepository.countByPrice()) {
+                    total += count.getProducts();
+                    inStock += count.getAvailable();
+                    if (count.getPrice() != null) {
+                        prices.put(count.getPrice(), count.getProducts());
+                        priced += count.getProducts();
+                        priceSum = priceSum.add(BigDecimal.valueOf(count.getPrice()).multiply(BigDecimal.valueOf(count.getProducts())));
+                    }
+                }
+                publish();
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    public ProductStatsDTO stats() {
+        Snapshot current = snapshot;
+        return new ProductStatsDTO(current.total(), current.inStock(), current.minPrice(), current.averagePrice(), current.maxPrice());
+    }
+
+    @Override
+    public void productCreated(ProductDTO product) {
+        apply(null, product);
+    }
+
+    @Override
+    public void productUpdated(ProductDTO previous, ProductDTO product) {
+        apply(previous, product);
+    }
+
+    @Override
+    public void productDeleted(ProductDTO previous) {
+        apply(previous, null);
+    }
+
+    private void apply(ProductDTO previous, ProductDTO product) {
+        lock.lock();
+        try {
+            if (previous != null) {
+                count(previous, -1);
+            }
+            if (product != null) {
+                count(product, 1);
+            }
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void count(ProductDTO product, int sign) {
+        total += sign;
+        if (Boolean.TRUE.equals(product.getAvailable())) {
+            inStock += sign;
+        }
+        Double price = product.getPrice();
+        if (price != null) {
+            priced += sign;
+            priceSum = sign > 0 ? priceSum.add(BigDecimal.valueOf(price)) : priceSum.subtract(BigDecimal.valueOf(price));
+            prices.merge(price, (long) sign, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    private void publish() {
+        Double average = priced > 0 ? priceSum.doubleValue() / priced : null;
+        snapshot = new Snapshot(total, inStock, firstCounted(prices), average, firstCounted(prices.descendingMap()));
+    }
+
+    /**
+     * First price with at least one product, skipping counts that are only transiently negative.
+     */
+    private static Double firstCounted(Map<Double, Long> prices) {
+        for (Map.Entry<Double, Long> entry : prices.entrySet()) {
+            if (entry.getValue() > 0) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private record Snapshot(long total, long inStock, Double minPrice, Double averagePrice, Double maxPrice) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.springcrudengine.product_api.warmup;
+
+import com.springcrudengine.product_api.cache.ProductCache;
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import com.springcrudengine.product_api.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Optional warm-up phase, enabled with {@code product.warmup.enabled=true}.
+ * Loads the first {@code product.warmup.products} products, in id order, into the product cache, then sends
+ * {@code product.warmup.requests} read-only requests to the product endpoints over the loopback interface,
+ * so that Hibernate, MapStruct, Jackson and the request handling path are loaded and compiled before real traffic.
+ * The requests are best effort: when the server cannot be reached over loopback, e.g. because it only listens on
+ * another address or only speaks TLS, the failure is logged and the application starts without them.
+ * <p>
+ * Runs as an {@link ApplicationRunner}: the application only reports itself ready, and the readiness probe
+ * only succeeds, once the warm-up has finished. The switch is read at runtime rather than with a bean condition,
+ * so it can still be turned on with an AOT-processed build.
+ */
+@Slf4j
+@Component
+public class ProductWarmup implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = ProductService.MAX_PAGE_SIZE;
+
+    private final ObjectProvider<ProductService> productService;
+    private final ProductCache productCache;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int products;
+    private final int requests;
+
+    public ProductWarmup(ObjectProvider<ProductService> productService,
+                         ProductCache productCache,
+                         Environment environment,
+                         @Value("${product.warmup.enabled:false}") boolean enabled,
+                         @Value("${product.warmup.products:1000}") int products,
+                         @Value("${product.warmup.requests:500}") int requests) {
+        this.productService = productService;
+        this.productCache = productCache;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.products = products;
+        this.requests = requests;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<UUID> ids = preloadProducts();
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        int sent = port == null ? 0 : sendRequests(port, ids);
+        log.info("Warm-up cached {} products and sent {} requests in {} ms",
+                ids.size(), sent, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reads the products page by page and caches them, only with the servlet stack which owns the cache.
+     */
+    private List<UUID> preloadProducts() {
+        List<UUID> ids = new ArrayList<>();
+        ProductService service = productService.getIfAvailable();
+        if (service == null) {
+            return ids;
+        }
+        String cursor = null;
+        while (ids.size() < products) {
+            ProductPageDTO page = service.getProductPage(cursor, Math.min(PAGE_SIZE, products - ids.size()));
+            for (ProductDTO product : page.getItems()) {
+                productCache.put(product);
+                ids.add(product.getId());
+            }
+            cursor = page.getNext();
+            if (cursor == null) {
+                break;
+            }
+        }
+        return ids;
+    }
+
+    private int sendRequests(int port, List<UUID> ids) throws InterruptedException {
+        String contextPath = environment.getProperty("server.servlet.context-path",
+                environment.getProperty("spring.webflux.base-path", ""));
+        String base = "http://localhost:" + port + StringUtils.trimTrailingCharacter(contextPath, '/') + "/api/products";
+        List<URI> uris = new ArrayList<>(List.of(
+                URI.create(base + "/page?size=20"),
+                URI.create(base + "/stats"),
+                URI.create(base + "/search?q=product&limit=10"),
+                // Unknown id, answered by the id filter
+                URI.create(base + "/" + new UUID(0, 0))));
+        for (UUID id : ids.subList(0, Math.min(ids.size(), 100))) {
+            uris.add(URI.create(base + "/" + id));
+            uris.add(URI.create(base + "/" + id + "?fields=name,price"));
+        }
+
+        int sent = 0;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (int i = 0; i < requests; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size())).GET().build();
+                try {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    sent++;
+                } catch (IOException ex) {
+                    // The following requests would fail the same way
+                    log.warn("Warm-up request to {} failed, skipping the remaining requests: {}", request.uri(), ex.toString());
+                    break;
+                }
+            }
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,51 @@
+package com.springcrudengine.product_api;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:admission;DB_CLOSE_DELAY=-1",
+        "product.admission.enabled=true",
+        "product.admission.rate-limit.requests-per-second=0.01",
+        "product.admission.rate-limit.burst=3",
+        // No read may run, so that reads are always rejected for concurrency
+        "product.admission.max-concurrent-reads=0"
+})
+public class ProductAdmissionControlIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private String baseUrl() {
+        return "http://localhost:" + port + "/api/products";
+    }
+
+    @Test
+    public void testRejectedRequestsGetErrorResponseWithRetryAfter() {
+        ResponseEntity<String> read = restTemplate.getForEntity(baseUrl() + "/stats", String.class);
+        assertThat(read.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(read.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(read.getBody()).contains("\"status\":503", "Too many concurrent requests");
+
+        ProductDTO product = new ProductDTO(null, "IT-Care Admitted", "Description", 10.0, true);
+        assertThat(restTemplate.postForEntity(baseUrl(), product, String.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(restTemplate.postForEntity(baseUrl(), product, String.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        // The burst of three requests is used up, the next token comes in 100 seconds
+        ResponseEntity<String> limited = restTemplate.postForEntity(baseUrl(), product, String.class);
+        assertThat(limited.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(Long.parseLong(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(90L, 100L);
+        assertThat(limited.getBody()).contains("\"status\":429", "Too many requests from this client");
+    }
+}
@@ -0,0 +1,89 @@
+package com.springcrudengine.product_api;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.dto.ProductPatchDTO;
+import com.springcrudengine.product_api.service.ProductService;
+import com.springcrudengine.product_api.snapshot.ProductCatalogSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1",
+        // Large enough for the scan to be split into several fork-join tasks
+        "product.snapshot.parallel-threshold=1000"
+})
+@ActiveProfiles("test")
+public class ProductCatalogSnapshotTest {
+
+    private static final int PRODUCTS = 2 * ProductService.MAX_BATCH_SIZE;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testSnapshotAnswersLikeTheDatabase() {
+        List<ProductDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            dtos.add(new ProductDTO(null, "IT-Care Snapshot " + (char) ('A' + i % 26) + i, "Scanned", (double) (i % 1000), i % 3 != 0));
+        }
+        List<ProductDTO> created = new ArrayList<>(productService.createProducts(dtos.subList(0, ProductService.MAX_BATCH_SIZE)));
+        created.addAll(productService.createProducts(dtos.subList(ProductService.MAX_BATCH_SIZE, PRODUCTS)));
+        productService.patchProduct(created.get(0).getId(), new ProductPatchDTO(Map.of("price", 5000.0)), null);
+        productService.updateProduct(created.get(1).getId(), new ProductDTO(null, "IT-Care Snapshot Renamed", "Changed", 7.5, false));
+        productService.deleteProduct(created.get(2).getId());
+        // Takes the row of the deleted product, yet is listed last
+        ProductDTO latest = productService.createProduct(new ProductDTO(null, "IT-Care Snapshot Latest", "Created last", 1.0, true));
+        assertEquals(PRODUCTS, catalogSnapshot.size());
+
+        List<ProductFilter> filters = List.of(
+                new ProductFilter(),
+                new ProductFilter(true, null, null, null),
+                new ProductFilter(false, 100.0, 200.0, null),
+                new ProductFilter(null, 999.0, null, null),
+                new ProductFilter(true, 7.0, 8.0, "IT-Care Snapshot R"),
+                new ProductFilter(null, null, 0.0, "IT-Care Snapshot A"));
+        List<String> sorts = new ArrayList<>();
+        sorts.add(null);
+        sorts.addAll(List.of("price", "price,desc", "name", "name,desc"));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (ProductFilter filter : filters) {
+            for (String sort : sorts) {
+                List<ProductDTO> scanned = productService.findProducts(filter, sort);
+                List<ProductDTO> queried = transaction.execute(status -> productService.findProducts(filter, sort));
+                if (sort == null) {
+                    // Without ORDER BY the database picks any order, the snapshot lists by id
+                    queried = new ArrayList<>(queried);
+                    queried.sort(Comparator.comparing(product -> product.getId().toString()));
+                    assertEquals(queried, scanned, filter.toString());
+                } else {
+                    assertEquals(queried, scanned, filter + " sorted by " + sort);
+                }
+            }
+        }
+        assertEquals(1, productService.findProducts(new ProductFilter(null, 5000.0, null, null), null).size());
+        assertEquals(latest, productService.getAllProducts().get(PRODUCTS - 1));
+
+        // A stale update reported after a newer one leaves the newer state
+        ProductDTO current = productService.findProducts(new ProductFilter(null, null, null, "IT-Care Snapshot Renamed"), null).get(0);
+        ProductDTO stale = new ProductDTO(current.getId(), "IT-Care Snapshot Stale", "Stale", 1.0, true, current.getVersion() - 1);
+        catalogSnapshot.productUpdated(current, stale);
+        assertEquals(List.of(current), productService.findProducts(new ProductFilter(null, null, null, "IT-Care Snapshot Renamed"), null));
+    }
+}
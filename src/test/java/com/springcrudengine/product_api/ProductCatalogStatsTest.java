@@ -0,0 +1,78 @@
+package com.springcrudengine.product_api;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductPatchDTO;
+import com.springcrudengine.product_api.dto.ProductStatsDTO;
+import com.springcrudengine.product_api.repository.ProductRepository;
+import com.springcrudengine.product_api.service.ProductService;
+import com.springcrudengine.product_api.stats.ProductCatalogStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:stats;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+public class ProductCatalogStatsTest {
+
+    private static final int CLIENTS = 8;
+    private static final int CHANGES_PER_CLIENT = 50;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalogStats catalogStats;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testStatsFollowConcurrentChanges() throws Exception {
+        List<ProductDTO> products = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            products.add(productService.createProduct(new ProductDTO(null, "Stats product " + i, "Counted", 10.0 * (i + 1), i % 2 == 0)));
+        }
+        assertEquals(new ProductStatsDTO(4, 2, 10.0, 25.0, 40.0), catalogStats.stats());
+
+        // Clients keep changing the same products, so their changes are often reported out of commit order
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            for (int client = 0; client < CLIENTS; client++) {
+                int seed = client;
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < CHANGES_PER_CLIENT; i++) {
+                        ProductDTO product = products.get((seed + i) % products.size());
+                        double price = 1.0 + (seed * CHANGES_PER_CLIENT + i) % 97;
+                        if (i % 2 == 0) {
+                            productService.patchProduct(product.getId(), new ProductPatchDTO(Map.of("price", price)), null);
+                        } else {
+                            productService.updateProduct(product.getId(),
+                                    new ProductDTO(null, product.getName(), "Changed", price, i % 3 == 0));
+                        }
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        productService.deleteProduct(products.get(0).getId());
+
+        ProductCatalogStats rebuilt = new ProductCatalogStats(productRepository, transactionManager);
+        rebuilt.afterSingletonsInstantiated();
+        assertEquals(3, rebuilt.stats().getTotal());
+        assertEquals(rebuilt.stats(), catalogStats.stats());
+    }
+}
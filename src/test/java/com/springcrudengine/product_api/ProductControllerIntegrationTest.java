@@ -1,16 +1,39 @@
 package com.springcrudengine.product_api;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.springcrudengine.product_api.cache.ProductListCacheFilter;
 import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.feed.ProductChangeFeed;
+import com.springcrudengine.product_api.repository.ProductRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
 public class ProductControllerIntegrationTest {
 
     @LocalServerPort
@@ -19,6 +42,17 @@ public class ProductControllerIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private ProductChangeFeed changeFeed;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
     private String baseUrl() {
         return "http://localhost:" + port + "/api/products";
     }
@@ -107,6 +141,89 @@ public class ProductControllerIntegrationTest {
         assertThat(response.getBody().length).isGreaterThanOrEqualTo(2);
     }
 
+    @Test
+    public void testBatchRejectedByTheDatabaseWritesNothing() {
+        long before = productRepository.count();
+        // Valid products spanning several chunks, then one whose description is too long for its column
+        List<ProductDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            batch.add(createValidProduct("IT-Care Atomic " + i));
+        }
+        batch.add(new ProductDTO(null, "IT-Care Atomic Long", "d".repeat(300), 10.0, true));
+
+        ResponseEntity<String> response = restTemplate.postForEntity(baseUrl() + "/batch", batch, String.class);
+        assertThat(response.getStatusCode().is5xxServerError()).isTrue();
+        assertThat(productRepository.count()).isEqualTo(before);
+    }
+
+    @Test
+    public void testBinaryFormatsAreNegotiated() throws Exception {
+        CBORMapper cbor = new CBORMapper();
+        byte[] body = cbor.writeValueAsBytes(List.of(createValidProduct("IT-Care Cbor1"), createValidProduct("IT-Care Cbor2")));
+        HttpResponse<byte[]> created = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl() + "/batch"))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(created.statusCode()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(created.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValue(MediaType.APPLICATION_CBOR_VALUE);
+        ProductDTO[] products = cbor.readValue(created.body(), ProductDTO[].class);
+        assertThat(products).extracting(ProductDTO::getName).containsExactly("IT-Care Cbor1", "IT-Care Cbor2");
+
+        SmileMapper smile = new SmileMapper();
+        httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl()))
+                .header(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(smile.writeValueAsBytes(createValidProduct("IT-Care Smile"))))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<byte[]> listed = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl() + "?namePrefix=IT-Care%20Smile"))
+                .header(HttpHeaders.ACCEPT, "application/x-jackson-smile")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(listed.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(smile.readValue(listed.body(), ProductDTO[].class)).extracting(ProductDTO::getName).containsExactly("IT-Care Smile");
+
+        // Clients accepting anything still get JSON
+        HttpResponse<String> any = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl() + "/" + products[0].getId()))
+                .header(HttpHeaders.ACCEPT, MediaType.ALL_VALUE)
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(any.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValue(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(any.body()).contains("IT-Care Cbor1");
+    }
+
+    @Test
+    public void testListResponseIsCachedUntilCatalogChanges() throws Exception {
+        restTemplate.postForEntity(baseUrl(), createValidProduct("IT-Care Listed1"), ProductDTO.class);
+        HttpRequest gzipRequest = HttpRequest.newBuilder(URI.create(baseUrl() + "?namePrefix=IT-Care%20Listed&sort=name"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+        FunctionCounter hits = meterRegistry.get("cache.gets")
+                .tags("cache", ProductListCacheFilter.NAME, "result", "hit")
+                .functionCounter();
+
+        HttpResponse<byte[]> first = httpClient.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        double hitsBefore = hits.count();
+        HttpResponse<byte[]> second = httpClient.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(hits.count()).isEqualTo(hitsBefore + 1);
+        assertThat(second.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        assertThat(second.body()).isEqualTo(first.body());
+        assertThat(gunzip(second.body())).contains("IT-Care Listed1");
+
+        // Any change starts a new generation, the next request sees it
+        restTemplate.postForEntity(baseUrl(), createValidProduct("IT-Care Listed2"), ProductDTO.class);
+        HttpResponse<byte[]> third = httpClient.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(gunzip(third.body())).contains("IT-Care Listed1", "IT-Care Listed2");
+
+        HttpResponse<String> identity = httpClient.send(HttpRequest.newBuilder(gzipRequest.uri()).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(identity.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+        assertThat(identity.body()).contains("IT-Care Listed1", "IT-Care Listed2");
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
     @Test
     public void testDeleteNonExistingProduct() {
         UUID nonExistentId = UUID.randomUUID();
@@ -119,4 +236,133 @@ public class ProductControllerIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(response.getBody()).contains("Product not found");
     }
+
+    @Test
+    public void testUpdateNonExistingProduct() {
+        UUID nonExistentId = UUID.randomUUID();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<ProductDTO> entity = new HttpEntity<>(createValidProduct("IT-Care Ghost"), headers);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl() + "/" + nonExistentId,
+                HttpMethod.PUT,
+                entity,
+                String.class
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).contains("Product not found");
+    }
+
+    @Test
+    public void testConditionalGetAndUpdate() {
+        ResponseEntity<ProductDTO> createResponse = restTemplate.postForEntity(baseUrl(), createValidProduct("IT-Care Versioned"), ProductDTO.class);
+        String eTag = createResponse.getHeaders().getETag();
+        String url = baseUrl() + "/" + createResponse.getBody().getId();
+        assertThat(eTag).isEqualTo("\"0\"");
+
+        HttpHeaders conditionalGet = new HttpHeaders();
+        conditionalGet.setIfNoneMatch(eTag);
+        ResponseEntity<String> notModified = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(conditionalGet), String.class);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+
+        HttpHeaders conditionalPut = new HttpHeaders();
+        conditionalPut.setContentType(MediaType.APPLICATION_JSON);
+        conditionalPut.setIfMatch(eTag);
+        HttpEntity<ProductDTO> update = new HttpEntity<>(createValidProduct("IT-Care Versioned v2"), conditionalPut);
+
+        ResponseEntity<ProductDTO> updated = restTemplate.exchange(url, HttpMethod.PUT, update, ProductDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getHeaders().getETag()).isEqualTo("\"1\"");
+
+        ResponseEntity<String> conflict = restTemplate.exchange(url, HttpMethod.PUT, update, String.class);
+        assertThat(conflict.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        ResponseEntity<String> modified = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(conditionalGet), String.class);
+        assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(modified.getBody()).contains("IT-Care Versioned v2");
+    }
+
+    @Test
+    public void testPrometheusEndpointExposesRequestAndServiceMetrics() {
+        ProductDTO created = restTemplate.postForEntity(baseUrl(), createValidProduct("IT-Care Metered"), ProductDTO.class).getBody();
+        restTemplate.getForEntity(baseUrl() + "/" + created.getId(), ProductDTO.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("http://localhost:" + port + "/actuator/prometheus", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("http_server_requests_seconds_bucket")
+                .contains("product_service_seconds_count{", "operation=\"create\"")
+                .contains("http_server_requests_sql_statements_count{")
+                .contains("http_server_requests_entity_loads_count{")
+                .contains("hikaricp_connections_acquire_seconds");
+    }
+
+    @Test
+    public void testChangeStreamResumesFromLastEventId() throws Exception {
+        long start = changeFeed.latestSequence();
+        ProductDTO created = restTemplate.postForEntity(baseUrl(), createValidProduct("IT-Care Streamed"), ProductDTO.class).getBody();
+        created.setPrice(49.99);
+        restTemplate.put(baseUrl() + "/" + created.getId(), created);
+        restTemplate.delete(baseUrl() + "/" + created.getId());
+
+        List<String[]> events = readChanges(Long.toString(start), created.getId(), 3);
+        assertThat(events).extracting(event -> event[1]).containsExactly("created", "updated", "deleted");
+        assertThat(events.get(1)[2]).contains("49.99");
+        assertThat(Long.parseLong(events.get(1)[0])).isGreaterThan(Long.parseLong(events.get(0)[0]));
+
+        // Reconnecting after the first event replays only the following ones
+        List<String[]> resumed = readChanges(events.get(0)[0], created.getId(), 2);
+        assertThat(resumed).extracting(event -> event[0]).containsExactly(events.get(1)[0], events.get(2)[0]);
+    }
+
+    @Test
+    public void testChangeStreamResetsUnknownLastEventId() throws Exception {
+        List<String[]> events = readChanges(Long.toString(Long.MAX_VALUE - 1), null, 1);
+        assertThat(events.get(0)[1]).isEqualTo("reset");
+
+        List<String[]> malformed = readChanges("not-a-number", null, 1);
+        assertThat(malformed.get(0)[1]).isEqualTo("reset");
+    }
+
+    /**
+     * Reads the change stream after the given event id until it got the expected number of events,
+     * only counting the events about the given product. Each event is returned as {id, name, data}.
+     */
+    private List<String[]> readChanges(String lastEventId, UUID productId, int expected) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/changes"))
+                .header("Accept", "text/event-stream")
+                .header("Last-Event-ID", lastEventId)
+                .build();
+        BlockingQueue<String[]> received = new LinkedBlockingQueue<>();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        Thread reader = Thread.ofVirtual().start(() -> {
+            String[] event = new String[3];
+            for (String line : (Iterable<String>) response.body()::iterator) {
+                if (line.isEmpty()) {
+                    if (event[1] != null && (productId == null || (event[2] != null && event[2].contains(productId.toString())))) {
+                        received.add(event);
+                    }
+                    event = new String[3];
+                } else if (line.startsWith("id:")) {
+                    event[0] = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    event[1] = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    event[2] = line.substring(5);
+                }
+            }
+        });
+        List<String[]> events = new ArrayList<>();
+        while (events.size() < expected) {
+            String[] event = received.poll(10, TimeUnit.SECONDS);
+            assertThat(event).as("change event").isNotNull();
+            events.add(event);
+        }
+        response.body().close();
+        reader.interrupt();
+        return events;
+    }
 }
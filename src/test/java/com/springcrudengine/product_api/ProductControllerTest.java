@@ -3,28 +3,41 @@ package com.springcrudengine.product_api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.springcrudengine.product_api.controller.ProductController;
 import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import com.springcrudengine.product_api.dto.ProductPatchDTO;
+import com.springcrudengine.product_api.dto.ProductStatsDTO;
 import com.springcrudengine.product_api.exceptions.GlobalExceptionHandler;
+import com.springcrudengine.product_api.exceptions.PreconditionFailedException;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import com.springcrudengine.product_api.mapper.ProductMapper;
 import com.springcrudengine.product_api.service.ProductService;
+import com.springcrudengine.product_api.stats.ProductCatalogStats;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public class ProductControllerTest {
 
@@ -36,10 +49,14 @@ public class ProductControllerTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductCatalogStats catalogStats;
+
     @InjectMocks
     private ProductController productController;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
@@ -67,6 +84,27 @@ public class ProductControllerTest {
     }
 
 
+    @Test
+    void testCreateProductsInBatch() throws Exception {
+        List<ProductDTO> requestDTOs = List.of(
+                new ProductDTO(null, "IT-Care Mouse", "Wireless mouse", 20.0, true),
+                new ProductDTO(null, "IT-Care Pad", "Mouse pad", 5.0, true)
+        );
+        List<ProductDTO> responseDTOs = List.of(
+                new ProductDTO(UUID.randomUUID(), "IT-Care Mouse", "Wireless mouse", 20.0, true),
+                new ProductDTO(UUID.randomUUID(), "IT-Care Pad", "Mouse pad", 5.0, true)
+        );
+
+        Mockito.when(productService.createProducts(any())).thenReturn(responseDTOs);
+
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTOs)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].name").value("IT-Care Pad"));
+    }
+
     @Test
     void testGetProductById_NotFound() throws Exception {
         UUID nonExistingId = UUID.randomUUID();
@@ -93,6 +131,33 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.name").value("Keyboard"));
     }
 
+    @Test
+    void testGetProductById_NotModified() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        Mockito.when(productService.getProductVersion(id)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/products/{id}", id).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+        Mockito.verify(productService, Mockito.never()).getProduct(id);
+    }
+
+    @Test
+    void testGetProductById_ModifiedSinceETag() throws Exception {
+        UUID id = UUID.randomUUID();
+        ProductDTO productDTO = new ProductDTO(id, "Keyboard", "Mechanical keyboard", 50.0, true, 4L);
+
+        Mockito.when(productService.getProductVersion(id)).thenReturn(Optional.of(4L));
+        Mockito.when(productService.getProduct(id)).thenReturn(Optional.of(productDTO));
+
+        mockMvc.perform(get("/api/products/{id}", id).header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
     @Test
     void testGetAllProducts() throws Exception {
         List<ProductDTO> productsDTO = Arrays.asList(
@@ -107,6 +172,111 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void testGetFilteredProducts() throws Exception {
+        List<ProductDTO> productsDTO = List.of(new ProductDTO(UUID.randomUUID(), "Item1", "Desc1", 10.0, true));
+        ProductFilter filter = new ProductFilter(true, null, 100.0, "It");
+
+        Mockito.when(productService.findProducts(filter, "price,desc")).thenReturn(productsDTO);
+
+        mockMvc.perform(get("/api/products")
+                        .param("available", "true")
+                        .param("maxPrice", "100")
+                        .param("namePrefix", "It")
+                        .param("sort", "price,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        Mockito.verify(productService, Mockito.never()).getAllProducts();
+    }
+
+    @Test
+    void testGetProductsWithFields() throws Exception {
+        UUID id = UUID.randomUUID();
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("id", id);
+        product.put("price", 15.0);
+        product.put("version", 4L);
+
+        when(productService.getProductFields(id, "price")).thenReturn(Optional.of(product));
+        when(productService.findProductFields(any(ProductFilter.class), isNull(), eq("price"))).thenReturn(List.of(product));
+
+        mockMvc.perform(get("/api/products/" + id).param("fields", "price"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.price").value(15.0))
+                .andExpect(jsonPath("$.description").doesNotExist());
+        mockMvc.perform(get("/api/products").param("fields", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id.toString()))
+                .andExpect(jsonPath("$[0].name").doesNotExist());
+    }
+
+    @Test
+    void testGetProductPage() throws Exception {
+        ProductPageDTO page = new ProductPageDTO(
+                List.of(new ProductDTO(UUID.randomUUID(), "Item1", "Desc1", 100.0, true)),
+                "next-cursor"
+        );
+
+        Mockito.when(productService.getProductPage("cursor", 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/products/page").param("cursor", "cursor").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    @Test
+    void testSearchProducts() throws Exception {
+        List<ProductDTO> results = List.of(new ProductDTO(UUID.randomUUID(), "Tablet", "Ten inch tablet", 300.0, true));
+
+        Mockito.when(productService.searchProducts("tab", 5)).thenReturn(results);
+
+        mockMvc.perform(get("/api/products/search").param("q", "tab").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Tablet"));
+    }
+
+    @Test
+    void testGetStats() throws Exception {
+        when(catalogStats.stats()).thenReturn(new ProductStatsDTO(3, 2, 5.0, 20.0, 40.0));
+
+        mockMvc.perform(get("/api/products/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.inStock").value(2))
+                .andExpect(jsonPath("$.averagePrice").value(20.0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportProductsAsNdjson() throws Exception {
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+
+        Mockito.doAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new ProductDTO(id1, "Item1", "Desc1", 100.0, true));
+            consumer.accept(new ProductDTO(id2, "Item2", "Desc2", 200.0, false));
+            return null;
+        }).when(productService).exportProducts(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(id1, objectMapper.readValue(lines[0], ProductDTO.class).getId());
+        assertEquals(id2, objectMapper.readValue(lines[1], ProductDTO.class).getId());
+    }
+
     @Test
     void testDeleteProduct() throws Exception {
         UUID id = UUID.randomUUID();
@@ -125,7 +295,7 @@ public class ProductControllerTest {
         ProductDTO requestDTO = new ProductDTO(null, "IT-Care Updated", "Updated description", 75.0, false);
         ProductDTO updatedDTO = new ProductDTO(id, "IT-Care Updated", "Updated description", 75.0, false);
 
-        Mockito.when(productService.updateProduct(eq(id), any(ProductDTO.class))).thenReturn(updatedDTO);
+        Mockito.when(productService.updateProduct(eq(id), any(ProductDTO.class), isNull())).thenReturn(updatedDTO);
 
         mockMvc.perform(put("/api/products/" + id)
                         .contentType("application/json")
@@ -135,6 +305,42 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.name").value("IT-Care Updated"));
     }
 
+    @Test
+    void testUpdateProduct_StaleIfMatch() throws Exception {
+        UUID id = UUID.randomUUID();
+        ProductDTO requestDTO = new ProductDTO(null, "IT-Care Updated", "Updated description", 75.0, false);
+
+        Mockito.when(productService.updateProduct(eq(id), any(ProductDTO.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Product has been modified by another request"));
+
+        mockMvc.perform(put("/api/products/" + id)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    void testPatchProduct() throws Exception {
+        UUID id = UUID.randomUUID();
+        ProductDTO patchedDTO = new ProductDTO(id, "IT-Care Patched", "Unchanged description", 65.0, false, 3L);
+
+        Mockito.when(productService.patchProduct(eq(id), any(ProductPatchDTO.class), eq(2L))).thenAnswer(invocation -> {
+            ProductPatchDTO patch = invocation.getArgument(1);
+            assertEquals(Map.of("price", 65, "available", false), patch.getChanges());
+            return patchedDTO;
+        });
+
+        mockMvc.perform(patch("/api/products/" + id)
+                        .header("If-Match", "\"2\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": 65, \"available\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.description").value("Unchanged description"));
+    }
+
     @Test
     void testValidateProductDTO_InvalidName() throws Exception {
         // Expecting 400 Bad Request with a message for missing or invalid name
@@ -0,0 +1,76 @@
+package com.springcrudengine.product_api;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "product.write.group-commit.enabled=true",
+        "product.write.group-commit.max-delay=20ms",
+        "spring.datasource.url=jdbc:h2:mem:groupcommit;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+public class ProductGroupCommitTest {
+
+    private static final int CLIENTS = 50;
+    private static final int PRODUCTS = 400;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testConcurrentCreatesShareCommits() throws Exception {
+        List<Future<ProductDTO>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            for (int i = 0; i < PRODUCTS; i++) {
+                ProductDTO dto = new ProductDTO(null, "Grouped product " + i, "Created concurrently", 10.0 + i, true);
+                futures.add(clients.submit(() -> productService.createProduct(dto)));
+            }
+        }
+
+        for (Future<ProductDTO> future : futures) {
+            ProductDTO created = future.get();
+            assertEquals(0L, created.getVersion());
+            // Committed before createProduct returned
+            assertTrue(productService.getProductVersion(created.getId()).isPresent());
+        }
+        double commits = meterRegistry.get("product.write.group.commits").counter().count();
+        assertTrue(commits > 0 && commits < PRODUCTS / 2.0, commits + " commits for " + PRODUCTS + " products");
+    }
+
+    @Test
+    void testRejectedProductFailsOnlyItsOwnCreate() throws Exception {
+        List<Future<ProductDTO>> futures = new ArrayList<>();
+        Future<ProductDTO> rejected;
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            // Passes validation but is too long for the description column, the others join its batch
+            ProductDTO tooLong = new ProductDTO(null, "Grouped too long", "d".repeat(300), 10.0, true);
+            rejected = clients.submit(() -> productService.createProduct(tooLong));
+            for (int i = 1; i < CLIENTS; i++) {
+                ProductDTO dto = new ProductDTO(null, "Grouped neighbour " + i, "Created concurrently", 10.0 + i, true);
+                futures.add(clients.submit(() -> productService.createProduct(dto)));
+            }
+        }
+
+        assertThrows(ExecutionException.class, rejected::get);
+        for (Future<ProductDTO> future : futures) {
+            ProductDTO created = future.get();
+            assertEquals(0L, created.getVersion());
+            assertTrue(productService.getProductVersion(created.getId()).isPresent());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.springcrudengine.product_api;
+
+import com.springcrudengine.product_api.cache.ProductCatalogGeneration;
+import com.springcrudengine.product_api.cache.ProductReadCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductReadCoalescerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductReadCoalescer coalescer = new ProductReadCoalescer(meterRegistry);
+    private final ProductCatalogGeneration generation = new ProductCatalogGeneration();
+
+    @Test
+    void testConcurrentIdenticalReadsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> key = Arrays.asList("find", "filter", generation.current());
+
+        CompletableFuture<List<String>> leader = CompletableFuture.supplyAsync(() -> coalescer.coalesce("find", key, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return List.of("before");
+        }));
+        waitUntil(() -> loads.get() == 1);
+
+        CompletableFuture<List<String>> follower = CompletableFuture.supplyAsync(
+                () -> coalescer.coalesce("find", key, () -> List.of("unexpected")));
+        waitUntil(() -> coalesced() == 1);
+
+        // A write returns only after advancing the generation, later reads must not join the flight above
+        generation.advance();
+        List<String> afterWrite = coalescer.coalesce("find", Arrays.asList("find", "filter", generation.current()),
+                () -> List.of("after"));
+        assertEquals(List.of("after"), afterWrite);
+
+        release.countDown();
+        assertSame(leader.get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("before"), follower.get());
+        assertEquals(1, loads.get());
+        assertEquals(1, coalesced());
+
+        // Nothing is kept once the read has completed
+        assertEquals(List.of("again"), coalescer.coalesce("find", key, () -> List.of("again")));
+    }
+
+    @Test
+    void testFollowersGetTheFailureOfTheSharedLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> key = Arrays.asList("page", "", 50, generation.current());
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> coalescer.coalesce("page", key, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("database unavailable");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> coalescer.coalesce("page", key, () -> "unexpected"));
+        waitUntil(() -> coalesced() == 1);
+
+        release.countDown();
+        Exception failure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals("database unavailable", failure.getCause().getMessage());
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFollowersGetTheErrorOfTheSharedLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> key = Arrays.asList("find", "filter", generation.current());
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> coalescer.coalesce("find", key, () -> {
+            started.countDown();
+            await(release);
+            throw new StackOverflowError();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> coalescer.coalesce("find", key, () -> "unexpected"));
+        waitUntil(() -> coalesced() == 1);
+
+        release.countDown();
+        Exception failure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, failure.getCause());
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    }
+
+    private double coalesced() {
+        return meterRegistry.find(ProductReadCoalescer.METRIC).counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(5);
+        }
+    }
+}
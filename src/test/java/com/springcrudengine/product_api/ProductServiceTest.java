@@ -1,16 +1,34 @@
 package com.springcrudengine.product_api;
 
+import com.springcrudengine.product_api.cache.ProductCache;
+import com.springcrudengine.product_api.cache.ProductIdFilter;
 import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductFilter;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import com.springcrudengine.product_api.dto.ProductPatchDTO;
+import com.springcrudengine.product_api.exceptions.BadRequestException;
+import com.springcrudengine.product_api.exceptions.PreconditionFailedException;
+import com.springcrudengine.product_api.exceptions.ProductNotFoundException;
+import com.springcrudengine.product_api.search.ProductSearchIndex;
 import com.springcrudengine.product_api.service.ProductService;
 import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -20,6 +38,18 @@ public class ProductServiceTest {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductIdFilter productIdFilter;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private ProductDTO createDTO(String name, String desc, double price, boolean available) {
         return new ProductDTO(null, name, desc, price, available);
     }
@@ -95,6 +125,24 @@ public class ProductServiceTest {
         assertEquals("Product not found", exception.getMessage());
     }
 
+    @Test
+    void testUpdateProductIsVisibleToLaterReads() {
+        ProductDTO original = productService.createProduct(createDTO("Router", "WiFi 5 router", 90.0, true));
+        productService.updateProduct(original.getId(), createDTO("Router", "WiFi 6 router", 120.0, true));
+
+        ProductDTO reloaded = productService.getProduct(original.getId()).orElseThrow();
+        assertEquals("WiFi 6 router", reloaded.getDescription());
+        assertEquals(120.0, reloaded.getPrice());
+    }
+
+    @Test
+    void testUpdateProductWhenNotExistsThrowsNotFound() {
+        UUID nonExistentId = UUID.randomUUID();
+
+        assertThrows(ProductNotFoundException.class,
+                () -> productService.updateProduct(nonExistentId, createDTO("Camera", "DSLR", 800.0, true)));
+    }
+
     @Test
     void testDeleteProductWhenExists() {
         ProductDTO product = productService.createProduct(createDTO("Printer", "Laser printer", 150.0, true));
@@ -111,5 +159,321 @@ public class ProductServiceTest {
             productService.deleteProduct(nonExistentId);
         });
         assertEquals("Product not found", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void testGetProductPageWalksAllProducts() {
+        for (int i = 0; i < 5; i++) {
+            productService.createProduct(createDTO("Cable " + i, "USB cable", 5.0 + i, true));
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        ProductPageDTO page = productService.getProductPage(null, 2);
+        int pages = 1;
+        seen.addAll(page.getItems().stream().map(ProductDTO::getId).toList());
+        while (page.getNext() != null) {
+            page = productService.getProductPage(page.getNext(), 2);
+            seen.addAll(page.getItems().stream().map(ProductDTO::getId).toList());
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(5, seen.size());
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    void testGetProductPageRejectsInvalidCursor() {
+        assertThrows(BadRequestException.class, () -> productService.getProductPage("not-a-cursor", 10));
+    }
+
+    @Test
+    void testGetProductPageRejectsInvalidSize() {
+        assertThrows(BadRequestException.class, () -> productService.getProductPage(null, 0));
+        assertThrows(BadRequestException.class, () -> productService.getProductPage(null, ProductService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testExportProductsVisitsEveryProduct() {
+        productService.createProduct(createDTO("Speaker", "Bluetooth speaker", 80.0, true));
+        productService.createProduct(createDTO("Headset", "Gaming headset", 60.0, false));
+
+        List<ProductDTO> exported = new ArrayList<>();
+        productService.exportProducts(exported::add);
+
+        assertEquals(2, exported.size());
+        assertTrue(exported.stream().anyMatch(p -> p.getName().equals("Speaker")));
+    }
+
+    @Test
+    void testCreateProductsInBatch() {
+        List<ProductDTO> batch = List.of(
+                createDTO("IT-Care Lamp", "Desk lamp", 25.0, true),
+                createDTO("IT-Care Chair", "Office chair", 150.0, true),
+                createDTO("IT-Care Desk", "Standing desk", 400.0, false)
+        );
+        List<ProductDTO> created = productService.createProducts(batch);
+
+        assertEquals(3, created.size());
+        assertTrue(created.stream().allMatch(p -> p.getId() != null));
+        assertEquals(3, productService.getAllProducts().size());
+    }
+
+    @Test
+    void testCreateProductsInBatchReportsEveryInvalidItem() {
+        List<ProductDTO> batch = List.of(
+                createDTO("IT-Care Lamp", "Desk lamp", 25.0, true),
+                createDTO("IT-Care Chair", "Office chair", -1.0, true),
+                new ProductDTO(null, "IT-Care Desk", "Standing desk", 400.0, null)
+        );
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> productService.createProducts(batch));
+        assertTrue(exception.getMessage().contains("[1] price: Price must be at least 0"));
+        assertTrue(exception.getMessage().contains("[2] available: Availability status must be provided"));
+        assertTrue(productService.getAllProducts().isEmpty());
+    }
+
+    // The cache only sees committed changes, so this test and the next commit theirs and delete the products again
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testGetProductIsServedFromCacheAfterCreate() {
+        ProductDTO created = productService.createProduct(createDTO("Webcam", "HD webcam", 45.0, true));
+        long hitsBefore = productCache.stats().hitCount();
+
+        assertTrue(productService.getProduct(created.getId()).isPresent());
+        assertEquals(hitsBefore + 1, productCache.stats().hitCount());
+        productService.deleteProduct(created.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testUpdateAndDeleteInvalidateCachedProduct() {
+        ProductDTO created = productService.createProduct(createDTO("Charger", "USB-C charger", 25.0, true));
+        productService.updateProduct(created.getId(), createDTO("Charger", "GaN charger", 35.0, true));
+
+        long missesBefore = productCache.stats().missCount();
+        assertEquals("GaN charger", productService.getProduct(created.getId()).orElseThrow().getDescription());
+        assertEquals(missesBefore + 1, productCache.stats().missCount());
+
+        productService.deleteProduct(created.getId());
+        assertFalse(productService.getProduct(created.getId()).isPresent());
+    }
+
+    @Test
+    void testFailedLoadDoesNotBlockLaterLookups() {
+        UUID id = UUID.randomUUID();
+        ProductDTO product = new ProductDTO(id, "Probe", "Loaded after a failure", 10.0, true, 0L);
+        assertThrows(StackOverflowError.class, () -> productCache.get(id, key -> {
+            throw new StackOverflowError();
+        }));
+
+        Optional<ProductDTO> loaded = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> productCache.get(id, key -> Optional.of(product)));
+        assertEquals(Optional.of(product), loaded);
+        productCache.invalidate(id);
+    }
+
+    @Test
+    void testUpdateProductIncrementsVersionAndChecksExpectedVersion() {
+        ProductDTO created = productService.createProduct(createDTO("Drone", "Camera drone", 500.0, true));
+        assertEquals(0L, created.getVersion());
+
+        ProductDTO updated = productService.updateProduct(created.getId(), createDTO("Drone", "4K camera drone", 550.0, true), 0L);
+        assertEquals(1L, updated.getVersion());
+        assertEquals(Optional.of(1L), productService.getProductVersion(created.getId()));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> productService.updateProduct(created.getId(), createDTO("Drone", "Old drone", 400.0, true), 0L));
+        assertThrows(ProductNotFoundException.class,
+                () -> productService.updateProduct(UUID.randomUUID(), createDTO("Drone", "Old drone", 400.0, true), 0L));
+    }
+
+    @Test
+    void testPatchProductChangesOnlyGivenProperties() {
+        ProductDTO created = productService.createProduct(createDTO("Speaker", "Bluetooth speaker", 80.0, true));
+
+        // Neither patch overwrites the property changed by the other one
+        productService.patchProduct(created.getId(), new ProductPatchDTO(Map.of("price", 75)), null);
+        Map<String, Object> clearDescription = new HashMap<>();
+        clearDescription.put("description", null);
+        clearDescription.put("available", false);
+        ProductDTO patched = productService.patchProduct(created.getId(), new ProductPatchDTO(clearDescription), 1L);
+
+        assertEquals(new ProductDTO(created.getId(), "Speaker", null, 75.0, false, 2L), patched);
+        assertEquals(Optional.of(patched), productService.getProduct(created.getId()));
+        assertEquals(patched, productService.patchProduct(created.getId(), new ProductPatchDTO(), 2L));
+    }
+
+    @Test
+    void testPatchProductValidatesPropertiesAndVersion() {
+        ProductDTO created = productService.createProduct(createDTO("Headset", "Gaming headset", 60.0, true));
+
+        Map<String, Object> invalid = new HashMap<>();
+        invalid.put("name", null);
+        invalid.put("price", -1);
+        invalid.put("available", "yes");
+        invalid.put("version", 7);
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> productService.patchProduct(created.getId(), new ProductPatchDTO(invalid), null));
+        assertEquals("available: must be a boolean; name: Name cannot be blank; price: Price must be at least 0; version: cannot be patched",
+                exception.getMessage());
+        assertEquals(Optional.of(0L), productService.getProductVersion(created.getId()));
+
+        ProductPatchDTO discount = new ProductPatchDTO(Map.of("price", 55.5));
+        assertThrows(PreconditionFailedException.class, () -> productService.patchProduct(created.getId(), discount, 3L));
+        assertThrows(ProductNotFoundException.class, () -> productService.patchProduct(UUID.randomUUID(), discount, null));
+    }
+
+    @Test
+    void testSparseFieldsReturnOnlyRequestedProperties() {
+        ProductDTO created = productService.createProduct(createDTO("Sparse Monitor", "27 inch monitor", 300.0, true));
+        // Read from the database rather than from the cache filled by createProduct
+        productCache.invalidate(created.getId());
+
+        Map<String, Object> fields = productService.getProductFields(created.getId(), "price, name").orElseThrow();
+        assertEquals(List.of("id", "name", "price", "version"), List.copyOf(fields.keySet()));
+        assertEquals(Map.of("id", created.getId(), "name", "Sparse Monitor", "price", 300.0, "version", 0L), fields);
+        productService.getProduct(created.getId());
+        assertEquals(fields, productService.getProductFields(created.getId(), "name,price").orElseThrow());
+
+        List<Map<String, Object>> listed = productService.findProductFields(new ProductFilter(null, null, null, "Sparse"), "price", "available");
+        assertEquals(List.of(Map.of("id", created.getId(), "available", true, "version", 0L)), listed);
+
+        assertTrue(productService.getProductFields(UUID.randomUUID(), "name").isEmpty());
+        assertThrows(BadRequestException.class, () -> productService.getProductFields(created.getId(), "name,sku"));
+        assertThrows(BadRequestException.class, () -> productService.findProductFields(new ProductFilter(), null, " "));
+    }
+
+    @Test
+    void testFindProductsFiltersAndSortsInDatabase() {
+        productService.createProduct(createDTO("Phone A", "Budget phone", 90.0, true));
+        productService.createProduct(createDTO("Phone B", "Mid-range phone", 60.0, true));
+        productService.createProduct(createDTO("Phone C", "Sold out phone", 50.0, false));
+        productService.createProduct(createDTO("Tablet", "Large tablet", 80.0, true));
+
+        List<ProductDTO> cheapInStock = productService.findProducts(new ProductFilter(true, null, 100.0, null), "price,desc");
+        assertEquals(List.of("Phone A", "Tablet", "Phone B"), cheapInStock.stream().map(ProductDTO::getName).toList());
+
+        List<ProductDTO> phones = productService.findProducts(new ProductFilter(null, 55.0, null, "Phone"), "name");
+        assertEquals(List.of("Phone A", "Phone B"), phones.stream().map(ProductDTO::getName).toList());
+    }
+
+    @Test
+    void testFindProductsRejectsInvalidSortAndRange() {
+        assertThrows(BadRequestException.class, () -> productService.findProducts(new ProductFilter(), "description"));
+        assertThrows(BadRequestException.class, () -> productService.findProducts(new ProductFilter(), "price,sideways"));
+        assertThrows(BadRequestException.class, () -> productService.findProducts(new ProductFilter(null, 10.0, 5.0, null), null));
+    }
+
+    // The search index is kept up to date by listeners, which only hear of committed changes
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testSearchProductsRanksNameMatchesFirstAndMatchesPrefixes() {
+        ProductDTO inDescription = productService.createProduct(createDTO("Stand", "Stand for a zephyrtab tablet", 20.0, true));
+        ProductDTO inName = productService.createProduct(createDTO("Zephyrtab", "Ten inch tablet", 300.0, true));
+        productService.createProduct(createDTO("Zephyrtab Case", "Leather case", 30.0, true));
+
+        List<ProductDTO> results = productService.searchProducts("zephyrtab tablet", 10);
+        assertEquals(List.of(inName.getId(), inDescription.getId()), results.stream().map(ProductDTO::getId).toList());
+
+        assertEquals(3, productService.searchProducts("ZEPHYR", 10).size());
+        assertEquals(1, productService.searchProducts("zephyr", 1).size());
+        assertTrue(productService.searchProducts("zephyrtab keyboard", 10).isEmpty());
+        assertThrows(BadRequestException.class, () -> productService.searchProducts(" ", 10));
+        assertThrows(BadRequestException.class, () -> productService.searchProducts("zephyr", 0));
+        productService.searchProducts("zephyrtab", 10).forEach(product -> productService.deleteProduct(product.getId()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testSearchIndexFollowsUpdatesAndDeletes() {
+        ProductDTO created = productService.createProduct(createDTO("Quillpad", "Note taking tablet", 150.0, true));
+        ProductDTO pen = productService.createProducts(List.of(createDTO("IT-Care Quillpad Pen", "Stylus", 40.0, true))).get(0);
+        assertEquals(2, productService.searchProducts("quillpad", 10).size());
+
+        productService.updateProduct(created.getId(), createDTO("Inkslate", "Note taking tablet", 150.0, true));
+        assertEquals(1, productService.searchProducts("quillpad", 10).size());
+        List<ProductDTO> renamed = productService.searchProducts("inkslate", 10);
+        assertEquals(1, renamed.size());
+        assertEquals(1L, renamed.get(0).getVersion());
+
+        // A stale update reported after a newer one leaves the newer state
+        ProductDTO stale = new ProductDTO(created.getId(), "Quillpad", "Note taking tablet", 150.0, true, 0L);
+        searchIndex.productUpdated(renamed.get(0), stale);
+        assertEquals(1, productService.searchProducts("quillpad", 10).size());
+        assertEquals(renamed, productService.searchProducts("inkslate", 10));
+
+        productService.deleteProduct(created.getId());
+        assertTrue(productService.searchProducts("inkslate", 10).isEmpty());
+
+        // An update reported after the deletion does not bring the product back
+        searchIndex.productUpdated(renamed.get(0), new ProductDTO(created.getId(), "Inkslate", "Note taking tablet", 150.0, true, 2L));
+        assertTrue(productService.searchProducts("inkslate", 10).isEmpty());
+        productService.deleteProduct(pen.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testChangesInATransactionAreReportedOnCommitOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ProductDTO rolledBack = transaction.execute(status -> {
+            status.setRollbackOnly();
+            return productService.createProduct(createDTO("Lumenbar", "Monitor light bar", 60.0, true));
+        });
+        assertTrue(productService.searchProducts("lumenbar", 10).isEmpty());
+        assertTrue(productCache.getIfPresent(rolledBack.getId()).isEmpty());
+        assertFalse(productService.getProduct(rolledBack.getId()).isPresent());
+
+        ProductDTO committed = transaction.execute(status -> {
+            ProductDTO created = productService.createProduct(createDTO("Lumenbar", "Monitor light bar", 60.0, true));
+            // Found by the transaction itself, but not yet by the index serving everyone else
+            assertEquals(created, productService.getProduct(created.getId()).orElseThrow());
+            assertTrue(productService.searchProducts("lumenbar", 10).isEmpty());
+            return created;
+        });
+        assertEquals(List.of(committed), productService.searchProducts("lumenbar", 10));
+        assertEquals(Optional.of(committed), productCache.getIfPresent(committed.getId()));
+        productService.deleteProduct(committed.getId());
+    }
+
+    @Test
+    void testNewProductsGetTimeOrderedIds() {
+        ProductDTO first = productService.createProduct(createDTO("Router", "Wi-Fi router", 120.0, true));
+        List<ProductDTO> batch = productService.createProducts(List.of(
+                createDTO("IT-Care Switch", "Network switch", 80.0, true),
+                createDTO("IT-Care Modem", "Cable modem", 90.0, true)
+        ));
+
+        List<UUID> ids = new ArrayList<>();
+        ids.add(first.getId());
+        batch.forEach(product -> ids.add(product.getId()));
+        ids.forEach(id -> assertEquals(7, id.version()));
+
+        // Keyset pages are ordered by id, so they return the products in creation order
+        List<UUID> paged = productService.getProductPage(null, 10).getItems().stream().map(ProductDTO::getId).toList();
+        assertEquals(ids, paged);
+    }
+
+    @Test
+    void testIdFilterRejectsUnknownIdsAndForgetsDeletedOnesOnRebuild() {
+        ProductDTO created = productService.createProduct(createDTO("Scanner", "Document scanner", 200.0, true));
+        productService.createProducts(List.of(createDTO("IT-Care Plotter", "Large format plotter", 900.0, true)));
+        List<UUID> unknownIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            unknownIds.add(UUID.randomUUID());
+        }
+
+        assertTrue(productIdFilter.mightContain(created.getId()));
+        long rejected = unknownIds.stream().filter(id -> !productIdFilter.mightContain(id)).count();
+        assertTrue(rejected >= 95, "rejected " + rejected + " of 100 unknown ids");
+
+        productService.deleteProduct(created.getId());
+        assertTrue(productIdFilter.mightContain(created.getId()));
+        productIdFilter.rebuild();
+        assertFalse(productIdFilter.mightContain(created.getId()));
+        assertFalse(productService.getProduct(created.getId()).isPresent());
+        ProductDTO kept = productService.findProducts(new ProductFilter(null, null, null, "IT-Care Plotter"), null).get(0);
+        assertTrue(productIdFilter.mightContain(kept.getId()));
     }
 }
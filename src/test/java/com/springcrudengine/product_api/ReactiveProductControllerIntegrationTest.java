@@ -0,0 +1,147 @@
+package com.springcrudengine.product_api;
+
+import com.springcrudengine.product_api.dto.ProductDTO;
+import com.springcrudengine.product_api.dto.ProductPageDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import java.util.List;
+import java.util.UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "reactive"})
+public class ReactiveProductControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private ProductDTO createValidProduct(String name, double price) {
+        return new ProductDTO(null, name, "Description", price, true);
+    }
+
+    private ProductDTO create(ProductDTO product) {
+        return webTestClient.post().uri("/api/products")
+                .bodyValue(product)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("ETag", "\"0\"")
+                .expectBody(ProductDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    public void testCrudWithConditionalRequests() {
+        ProductDTO created = create(createValidProduct("IT-Care Reactive", 10.0));
+        String url = "/api/products/" + created.getId();
+
+        webTestClient.get().uri(url)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"0\"")
+                .expectBody().jsonPath("$.name").isEqualTo("IT-Care Reactive");
+        webTestClient.get().uri(url).header("If-None-Match", "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        webTestClient.put().uri(url).header("If-Match", "\"0\"")
+                .bodyValue(createValidProduct("IT-Care Reactive v2", 12.0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"1\"")
+                .expectBody().jsonPath("$.name").isEqualTo("IT-Care Reactive v2");
+        webTestClient.put().uri(url).header("If-Match", "\"0\"")
+                .bodyValue(createValidProduct("IT-Care Reactive v3", 14.0))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED)
+                .expectBody().jsonPath("$.status").isEqualTo(412);
+        webTestClient.patch().uri(url).header("If-Match", "\"1\"")
+                .contentType(MediaType.valueOf("application/merge-patch+json"))
+                .bodyValue("{\"available\": false, \"description\": null}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"2\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("IT-Care Reactive v2")
+                .jsonPath("$.description").isEmpty()
+                .jsonPath("$.available").isEqualTo(false);
+
+        webTestClient.delete().uri(url)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.message").isEqualTo("Product deleted successfully");
+        webTestClient.get().uri(url)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Product not found");
+        webTestClient.put().uri(url)
+                .bodyValue(createValidProduct("IT-Care Ghost", 1.0))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testValidationErrorsHaveTheServletShape() {
+        webTestClient.post().uri("/api/products")
+                .bodyValue(new ProductDTO(null, "ab", "Invalid", -10.0, null))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .value(body -> assertThat(body)
+                        .contains("\"status\":400")
+                        .contains("price: Price must be at least 0")
+                        .contains("available: Availability status must be provided"));
+
+        webTestClient.post().uri("/api/products/batch")
+                .bodyValue(List.of(createValidProduct("IT-Care Lamp", 1.0), createValidProduct("Lamp", 1.0)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").value(message -> assertThat((String) message).startsWith("[1] name:"));
+    }
+
+    @Test
+    public void testListsAreStreamed() {
+        String prefix = "IT-Care Stream " + UUID.randomUUID();
+        webTestClient.post().uri("/api/products/batch")
+                .bodyValue(List.of(createValidProduct(prefix + " B", 30.0), createValidProduct(prefix + " A", 20.0)))
+                .exchange()
+                .expectStatus().isCreated();
+
+        List<ProductDTO> sorted = webTestClient.get()
+                .uri(uri -> uri.path("/api/products").queryParam("namePrefix", prefix).queryParam("sort", "price").build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProductDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertThat(sorted).extracting(ProductDTO::getName).containsExactly(prefix + " A", prefix + " B");
+
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/products").queryParam("namePrefix", prefix).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(2);
+
+        ProductPageDTO page = webTestClient.get().uri("/api/products/page?size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPageDTO.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNext()).isNotNull();
+
+        webTestClient.get().uri("/api/products?minPrice=5&maxPrice=1")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}